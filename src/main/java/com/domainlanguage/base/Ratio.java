@@ -56,6 +56,19 @@ public class Ratio {
     return Ratio.of(numerator.multiply(multiplier.numerator), denominator.multiply(multiplier.denominator));
   }
 
+  /** @return this ratio as an exact, reduced {@link Rational} */
+  public Rational toRational() {
+    return Rational.of(numerator).dividedBy(Rational.of(denominator));
+  }
+
+  public BigDecimal getNumerator() {
+    return numerator;
+  }
+
+  public BigDecimal getDenominator() {
+    return denominator;
+  }
+
   public boolean isMultipleOfDenominator(BigDecimal other) {
     return other.remainder(denominator).unscaledValue().intValue() == 0;
   }
@@ -0,0 +1,232 @@
+package com.domainlanguage.base;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * An exact fraction, always reduced to lowest terms with a positive denominator, so equal values are equal objects
+ * with equal hash codes. Unlike {@link Ratio}, which keeps whatever numerator and denominator it was given as
+ * BigDecimals, a Rational keeps them as longs, and only promotes to BigInteger when an operation overflows. Products
+ * are reduced as they're formed, so chains of them don't grow without bound.
+ */
+public final class Rational implements Comparable<Rational> {
+
+  public static final Rational ZERO = new Rational(0, 1);
+  public static final Rational ONE = new Rational(1, 1);
+
+  // null when the fraction fits in longs
+  private final long numerator;
+  private final long denominator;
+  private final BigInteger bigNumerator;
+  private final BigInteger bigDenominator;
+
+  public static Rational of(long numerator) {
+    return new Rational(numerator, 1);
+  }
+
+  public static Rational of(long numerator, long denominator) {
+    if (denominator == 0) {
+      throw new ArithmeticException("Zero denominator: " + numerator + "/0");
+    }
+    if (denominator < 0) {
+      if (numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) {
+        return Rational.of(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+      }
+      numerator = -numerator;
+      denominator = -denominator;
+    }
+    long gcd = Rational.gcd(numerator, denominator);
+    return new Rational(numerator / gcd, denominator / gcd);
+  }
+
+  public static Rational of(BigInteger numerator, BigInteger denominator) {
+    if (denominator.signum() == 0) {
+      throw new ArithmeticException("Zero denominator: " + numerator + "/0");
+    }
+    if (denominator.signum() < 0) {
+      numerator = numerator.negate();
+      denominator = denominator.negate();
+    }
+    BigInteger gcd = numerator.gcd(denominator);
+    if (!gcd.equals(BigInteger.ONE)) {
+      numerator = numerator.divide(gcd);
+      denominator = denominator.divide(gcd);
+    }
+    if (numerator.bitLength() <= 63 && denominator.bitLength() <= 63) {
+      return new Rational(numerator.longValue(), denominator.longValue());
+    }
+    return new Rational(numerator, denominator);
+  }
+
+  /** @return the exact value of {@code decimal}, e.g. 0.25 as 1/4 */
+  public static Rational of(BigDecimal decimal) {
+    if (decimal.scale() <= 0) {
+      return Rational.of(decimal.toBigIntegerExact(), BigInteger.ONE);
+    }
+    return Rational.of(decimal.unscaledValue(), BigInteger.TEN.pow(decimal.scale()));
+  }
+
+  private Rational(long numerator, long denominator) {
+    this.numerator = numerator;
+    this.denominator = denominator;
+    bigNumerator = null;
+    bigDenominator = null;
+  }
+
+  private Rational(BigInteger numerator, BigInteger denominator) {
+    this.numerator = 0;
+    this.denominator = 0;
+    bigNumerator = numerator;
+    bigDenominator = denominator;
+  }
+
+  public Rational plus(Rational other) {
+    if (bigNumerator == null && other.bigNumerator == null) {
+      try {
+        if (denominator == other.denominator) {
+          return Rational.of(Math.addExact(numerator, other.numerator), denominator);
+        }
+        long gcd = Rational.gcd(denominator, other.denominator);
+        long left = Math.multiplyExact(numerator, other.denominator / gcd);
+        long right = Math.multiplyExact(other.numerator, denominator / gcd);
+        return Rational.of(Math.addExact(left, right), Math.multiplyExact(denominator, other.denominator / gcd));
+      } catch (ArithmeticException overflow) {
+        // fall through to BigIntegers
+      }
+    }
+    return Rational.of(
+      getNumerator().multiply(other.getDenominator()).add(other.getNumerator().multiply(getDenominator())),
+      getDenominator().multiply(other.getDenominator()));
+  }
+
+  public Rational minus(Rational other) {
+    return plus(other.negate());
+  }
+
+  public Rational times(Rational other) {
+    if (bigNumerator == null && other.bigNumerator == null) {
+      try {
+        // reducing across first keeps the products small, and the result in lowest terms
+        long gcd1 = Rational.gcd(numerator, other.denominator);
+        long gcd2 = Rational.gcd(other.numerator, denominator);
+        return new Rational(
+          Math.multiplyExact(numerator / gcd1, other.numerator / gcd2),
+          Math.multiplyExact(denominator / gcd2, other.denominator / gcd1));
+      } catch (ArithmeticException overflow) {
+        // fall through to BigIntegers
+      }
+    }
+    return Rational.of(getNumerator().multiply(other.getNumerator()), getDenominator().multiply(other.getDenominator()));
+  }
+
+  public Rational dividedBy(Rational divisor) {
+    return times(divisor.reciprocal());
+  }
+
+  public Rational negate() {
+    if (bigNumerator == null && numerator != Long.MIN_VALUE) {
+      return new Rational(-numerator, denominator);
+    }
+    return Rational.of(getNumerator().negate(), getDenominator());
+  }
+
+  public Rational reciprocal() {
+    if (bigNumerator == null) {
+      return Rational.of(denominator, numerator);
+    }
+    return Rational.of(bigDenominator, bigNumerator);
+  }
+
+  public int signum() {
+    return bigNumerator == null ? Long.signum(numerator) : bigNumerator.signum();
+  }
+
+  public BigDecimal decimalValue(int scale, int roundingRule) {
+    return new BigDecimal(getNumerator()).divide(new BigDecimal(getDenominator()), scale, roundingRule);
+  }
+
+  public Ratio toRatio() {
+    return Ratio.of(new BigDecimal(getNumerator()), new BigDecimal(getDenominator()));
+  }
+
+  public BigInteger getNumerator() {
+    return bigNumerator == null ? BigInteger.valueOf(numerator) : bigNumerator;
+  }
+
+  public BigInteger getDenominator() {
+    return bigDenominator == null ? BigInteger.valueOf(denominator) : bigDenominator;
+  }
+
+  /** @return whether {@link #longNumerator()} and {@link #longDenominator()} can be used */
+  public boolean fitsInLongs() {
+    return bigNumerator == null;
+  }
+
+  public long longNumerator() {
+    if (bigNumerator != null) {
+      throw new ArithmeticException(this + " does not fit in longs");
+    }
+    return numerator;
+  }
+
+  public long longDenominator() {
+    if (bigDenominator != null) {
+      throw new ArithmeticException(this + " does not fit in longs");
+    }
+    return denominator;
+  }
+
+  /** Compares by cross-multiplying, so without dividing. */
+  @Override
+  public int compareTo(Rational other) {
+    if (bigNumerator == null && other.bigNumerator == null) {
+      if (denominator == other.denominator) {
+        return Long.compare(numerator, other.numerator);
+      }
+      try {
+        return Long.compare(
+          Math.multiplyExact(numerator, other.denominator),
+          Math.multiplyExact(other.numerator, denominator));
+      } catch (ArithmeticException overflow) {
+        // fall through to BigIntegers
+      }
+    }
+    return getNumerator().multiply(other.getDenominator()).compareTo(other.getNumerator().multiply(getDenominator()));
+  }
+
+  @Override
+  public boolean equals(Object anObject) {
+    if (anObject instanceof Rational) {
+      Rational other = (Rational) anObject;
+      if (bigNumerator == null) {
+        return other.bigNumerator == null && numerator == other.numerator && denominator == other.denominator;
+      }
+      return bigNumerator.equals(other.bigNumerator) && bigDenominator.equals(other.bigDenominator);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    if (bigNumerator == null) {
+      return 31 * Long.hashCode(numerator) + Long.hashCode(denominator);
+    }
+    return 31 * bigNumerator.hashCode() + bigDenominator.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return getNumerator() + "/" + getDenominator();
+  }
+
+  /** @return the positive greatest common divisor of {@code a} and {@code b > 0} */
+  private static long gcd(long a, long b) {
+    while (b != 0) {
+      long remainder = a % b;
+      a = b;
+      b = remainder;
+    }
+    return Math.abs(a);
+  }
+
+}
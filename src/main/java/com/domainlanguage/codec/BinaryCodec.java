@@ -0,0 +1,517 @@
+package com.domainlanguage.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Currency;
+
+import com.domainlanguage.money.Money;
+import com.domainlanguage.time.CalendarDate;
+import com.domainlanguage.time.CalendarInterval;
+import com.domainlanguage.time.Duration;
+import com.domainlanguage.time.TimeInterval;
+import com.domainlanguage.time.TimePoint;
+import com.domainlanguage.time.TimeUnit;
+
+/**
+ * A compact binary encoding of the value types, for shipping them between services or spilling them to disk, as an
+ * alternative to Java serialization. Values are read and written at a {@link ByteBuffer}'s position, or through
+ * {@link DataOutput}/{@link DataInput}; both produce the same bytes.
+ *
+ * <ul>
+ * <li>Money: a varint of the currency code (5 bits per letter) and a flag, then a zigzag varint of minor units, or, if
+ * they don't fit in a long, a length and the two's complement bytes.</li>
+ * <li>TimePoint: a zigzag varint of milliseconds from the epoch.</li>
+ * <li>CalendarDate: a zigzag varint of {@code year << 9 | month << 5 | day}.</li>
+ * <li>Duration: a byte for the unit, then a varint of the quantity.</li>
+ * <li>TimeInterval and CalendarInterval: a byte of flags for which limits are present and closed, then the limits.</li>
+ * </ul>
+ *
+ * Arrays are written as a count followed by, for Money, runs of a single currency that share a header, and for
+ * TimePoint and CalendarDate, the differences between neighbours, which are small for sorted or clustered data.
+ */
+public class BinaryCodec {
+
+  private static final TimeUnit[] UNITS = {
+    TimeUnit.millisecond,
+    TimeUnit.second,
+    TimeUnit.minute,
+    TimeUnit.hour,
+    TimeUnit.day,
+    TimeUnit.week,
+    TimeUnit.month,
+    TimeUnit.quarter,
+    TimeUnit.year };
+
+  private static final int LOWER = 1;
+  private static final int LOWER_CLOSED = 2;
+  private static final int UPPER = 4;
+  private static final int UPPER_CLOSED = 8;
+
+  private static final int MONEY = 0;
+  private static final int TIME_POINT = 1;
+  private static final int CALENDAR_DATE = 2;
+  private static final int DURATION = 3;
+  private static final int TIME_INTERVAL = 4;
+  private static final int CALENDAR_INTERVAL = 5;
+  private static final int MONIES = 6;
+  private static final int TIME_POINTS = 7;
+  private static final int CALENDAR_DATES = 8;
+
+  // decoded currencies, indexed by code; Currency instances are singletons, so racing to fill a slot is harmless
+  private static final Currency[] CURRENCIES = new Currency[1 << 15];
+
+  public static void write(ByteBuffer buffer, Money money) {
+    BinaryCodec.encode(buffer, money);
+  }
+
+  public static void write(DataOutput out, Money money) throws IOException {
+    BinaryCodec.writeValue(out, money);
+  }
+
+  public static Money readMoney(ByteBuffer buffer) {
+    return (Money) BinaryCodec.decode(buffer, BinaryCodec.MONEY);
+  }
+
+  public static Money readMoney(DataInput in) throws IOException {
+    return (Money) BinaryCodec.readValue(in, BinaryCodec.MONEY);
+  }
+
+  public static void write(ByteBuffer buffer, TimePoint point) {
+    BinaryCodec.encode(buffer, point);
+  }
+
+  public static void write(DataOutput out, TimePoint point) throws IOException {
+    BinaryCodec.writeValue(out, point);
+  }
+
+  public static TimePoint readTimePoint(ByteBuffer buffer) {
+    return (TimePoint) BinaryCodec.decode(buffer, BinaryCodec.TIME_POINT);
+  }
+
+  public static TimePoint readTimePoint(DataInput in) throws IOException {
+    return (TimePoint) BinaryCodec.readValue(in, BinaryCodec.TIME_POINT);
+  }
+
+  public static void write(ByteBuffer buffer, CalendarDate date) {
+    BinaryCodec.encode(buffer, date);
+  }
+
+  public static void write(DataOutput out, CalendarDate date) throws IOException {
+    BinaryCodec.writeValue(out, date);
+  }
+
+  public static CalendarDate readCalendarDate(ByteBuffer buffer) {
+    return (CalendarDate) BinaryCodec.decode(buffer, BinaryCodec.CALENDAR_DATE);
+  }
+
+  public static CalendarDate readCalendarDate(DataInput in) throws IOException {
+    return (CalendarDate) BinaryCodec.readValue(in, BinaryCodec.CALENDAR_DATE);
+  }
+
+  public static void write(ByteBuffer buffer, Duration duration) {
+    BinaryCodec.encode(buffer, duration);
+  }
+
+  public static void write(DataOutput out, Duration duration) throws IOException {
+    BinaryCodec.writeValue(out, duration);
+  }
+
+  public static Duration readDuration(ByteBuffer buffer) {
+    return (Duration) BinaryCodec.decode(buffer, BinaryCodec.DURATION);
+  }
+
+  public static Duration readDuration(DataInput in) throws IOException {
+    return (Duration) BinaryCodec.readValue(in, BinaryCodec.DURATION);
+  }
+
+  public static void write(ByteBuffer buffer, TimeInterval interval) {
+    BinaryCodec.encode(buffer, interval);
+  }
+
+  public static void write(DataOutput out, TimeInterval interval) throws IOException {
+    BinaryCodec.writeValue(out, interval);
+  }
+
+  public static TimeInterval readTimeInterval(ByteBuffer buffer) {
+    return (TimeInterval) BinaryCodec.decode(buffer, BinaryCodec.TIME_INTERVAL);
+  }
+
+  public static TimeInterval readTimeInterval(DataInput in) throws IOException {
+    return (TimeInterval) BinaryCodec.readValue(in, BinaryCodec.TIME_INTERVAL);
+  }
+
+  public static void write(ByteBuffer buffer, CalendarInterval interval) {
+    BinaryCodec.encode(buffer, interval);
+  }
+
+  public static void write(DataOutput out, CalendarInterval interval) throws IOException {
+    BinaryCodec.writeValue(out, interval);
+  }
+
+  public static CalendarInterval readCalendarInterval(ByteBuffer buffer) {
+    return (CalendarInterval) BinaryCodec.decode(buffer, BinaryCodec.CALENDAR_INTERVAL);
+  }
+
+  public static CalendarInterval readCalendarInterval(DataInput in) throws IOException {
+    return (CalendarInterval) BinaryCodec.readValue(in, BinaryCodec.CALENDAR_INTERVAL);
+  }
+
+  public static void write(ByteBuffer buffer, Money[] monies) {
+    BinaryCodec.encode(buffer, monies);
+  }
+
+  public static void write(DataOutput out, Money[] monies) throws IOException {
+    BinaryCodec.writeValue(out, monies);
+  }
+
+  public static Money[] readMonies(ByteBuffer buffer) {
+    return (Money[]) BinaryCodec.decode(buffer, BinaryCodec.MONIES);
+  }
+
+  public static Money[] readMonies(DataInput in) throws IOException {
+    return (Money[]) BinaryCodec.readValue(in, BinaryCodec.MONIES);
+  }
+
+  public static void write(ByteBuffer buffer, TimePoint[] points) {
+    BinaryCodec.encode(buffer, points);
+  }
+
+  public static void write(DataOutput out, TimePoint[] points) throws IOException {
+    BinaryCodec.writeValue(out, points);
+  }
+
+  public static TimePoint[] readTimePoints(ByteBuffer buffer) {
+    return (TimePoint[]) BinaryCodec.decode(buffer, BinaryCodec.TIME_POINTS);
+  }
+
+  public static TimePoint[] readTimePoints(DataInput in) throws IOException {
+    return (TimePoint[]) BinaryCodec.readValue(in, BinaryCodec.TIME_POINTS);
+  }
+
+  public static void write(ByteBuffer buffer, CalendarDate[] dates) {
+    BinaryCodec.encode(buffer, dates);
+  }
+
+  public static void write(DataOutput out, CalendarDate[] dates) throws IOException {
+    BinaryCodec.writeValue(out, dates);
+  }
+
+  public static CalendarDate[] readCalendarDates(ByteBuffer buffer) {
+    return (CalendarDate[]) BinaryCodec.decode(buffer, BinaryCodec.CALENDAR_DATES);
+  }
+
+  public static CalendarDate[] readCalendarDates(DataInput in) throws IOException {
+    return (CalendarDate[]) BinaryCodec.readValue(in, BinaryCodec.CALENDAR_DATES);
+  }
+
+  // ByteBuffers never throw IOException, so the shared code below, which also serves DataOutput, is funneled through
+  // these two methods
+  private static void encode(ByteBuffer buffer, Object value) {
+    try {
+      BinaryCodec.writeValue(buffer, value);
+    } catch (IOException impossible) {
+      throw new UncheckedIOException(impossible);
+    }
+  }
+
+  private static Object decode(ByteBuffer buffer, int type) {
+    try {
+      return BinaryCodec.readValue(buffer, type);
+    } catch (IOException impossible) {
+      throw new UncheckedIOException(impossible);
+    }
+  }
+
+  private static void writeValue(Object sink, Object value) throws IOException {
+    if (value instanceof Money) {
+      BinaryCodec.writeMoney(sink, (Money) value);
+    } else if (value instanceof TimePoint) {
+      BinaryCodec.writeSigned(sink, ((TimePoint) value).getTime());
+    } else if (value instanceof CalendarDate) {
+      BinaryCodec.writeSigned(sink, BinaryCodec.pack((CalendarDate) value));
+    } else if (value instanceof Duration) {
+      Duration duration = (Duration) value;
+      BinaryCodec.writeByte(sink, BinaryCodec.unitCode(duration.getUnit()));
+      BinaryCodec.writeUnsigned(sink, duration.getQuantity());
+    } else if (value instanceof TimeInterval) {
+      TimeInterval interval = (TimeInterval) value;
+      BinaryCodec.writeByte(sink, BinaryCodec.flags(
+        interval.hasLowerLimit(),
+        interval.includesLowerLimit(),
+        interval.hasUpperLimit(),
+        interval.includesUpperLimit()));
+      if (interval.hasLowerLimit()) {
+        BinaryCodec.writeSigned(sink, interval.lowerLimit().getTime());
+      }
+      if (interval.hasUpperLimit()) {
+        BinaryCodec.writeSigned(sink, interval.upperLimit().getTime());
+      }
+    } else if (value instanceof CalendarInterval) {
+      CalendarInterval interval = (CalendarInterval) value;
+      BinaryCodec.writeByte(sink, BinaryCodec.flags(
+        interval.hasLowerLimit(),
+        interval.includesLowerLimit(),
+        interval.hasUpperLimit(),
+        interval.includesUpperLimit()));
+      if (interval.hasLowerLimit()) {
+        BinaryCodec.writeSigned(sink, BinaryCodec.pack(interval.lowerLimit()));
+      }
+      if (interval.hasUpperLimit()) {
+        BinaryCodec.writeSigned(sink, BinaryCodec.pack(interval.upperLimit()));
+      }
+    } else if (value instanceof Money[]) {
+      BinaryCodec.writeMonies(sink, (Money[]) value);
+    } else if (value instanceof TimePoint[]) {
+      TimePoint[] points = (TimePoint[]) value;
+      BinaryCodec.writeUnsigned(sink, points.length);
+      long previous = 0;
+      for (TimePoint point : points) {
+        // wrapping subtraction is undone exactly by wrapping addition, so deltas can't overflow
+        BinaryCodec.writeSigned(sink, point.getTime() - previous);
+        previous = point.getTime();
+      }
+    } else {
+      CalendarDate[] dates = (CalendarDate[]) value;
+      BinaryCodec.writeUnsigned(sink, dates.length);
+      int previous = 0;
+      for (CalendarDate date : dates) {
+        int packed = BinaryCodec.pack(date);
+        BinaryCodec.writeSigned(sink, packed - previous);
+        previous = packed;
+      }
+    }
+  }
+
+  private static Object readValue(Object source, int type) throws IOException {
+    switch (type) {
+    case MONEY:
+      return BinaryCodec.readMoney(source, BinaryCodec.readUnsigned(source));
+    case TIME_POINT:
+      return TimePoint.from(BinaryCodec.readSigned(source));
+    case CALENDAR_DATE:
+      return BinaryCodec.unpack(BinaryCodec.readSigned(source));
+    case DURATION: {
+      TimeUnit unit = BinaryCodec.unitOf(BinaryCodec.readByte(source));
+      return new Duration(BinaryCodec.readUnsigned(source), unit);
+    }
+    case TIME_INTERVAL: {
+      int flags = BinaryCodec.readByte(source);
+      TimePoint lower = (flags & LOWER) == 0 ? null : TimePoint.from(BinaryCodec.readSigned(source));
+      TimePoint upper = (flags & UPPER) == 0 ? null : TimePoint.from(BinaryCodec.readSigned(source));
+      return TimeInterval.over(lower, (flags & LOWER_CLOSED) != 0, upper, (flags & UPPER_CLOSED) != 0);
+    }
+    case CALENDAR_INTERVAL: {
+      int flags = BinaryCodec.readByte(source);
+      CalendarDate lower = (flags & LOWER) == 0 ? null : BinaryCodec.unpack(BinaryCodec.readSigned(source));
+      CalendarDate upper = (flags & UPPER) == 0 ? null : BinaryCodec.unpack(BinaryCodec.readSigned(source));
+      return CalendarInterval.over(lower, (flags & LOWER_CLOSED) != 0, upper, (flags & UPPER_CLOSED) != 0);
+    }
+    case MONIES:
+      return BinaryCodec.readMonies(source);
+    case TIME_POINTS: {
+      TimePoint[] points = new TimePoint[BinaryCodec.readCount(source)];
+      long time = 0;
+      for (int i = 0; i < points.length; i++) {
+        time += BinaryCodec.readSigned(source);
+        points[i] = TimePoint.from(time);
+      }
+      return points;
+    }
+    default: {
+      CalendarDate[] dates = new CalendarDate[BinaryCodec.readCount(source)];
+      int packed = 0;
+      for (int i = 0; i < dates.length; i++) {
+        packed += (int) BinaryCodec.readSigned(source);
+        dates[i] = BinaryCodec.unpack(packed);
+      }
+      return dates;
+    }
+    }
+  }
+
+  private static void writeMoney(Object sink, Money money) throws IOException {
+    BigInteger units = money.getAmount().unscaledValue();
+    boolean big = units.bitLength() > 63;
+    BinaryCodec.writeUnsigned(sink, BinaryCodec.header(money.getCurrency(), big));
+    BinaryCodec.writeUnits(sink, units, big);
+  }
+
+  private static Money readMoney(Object source, long header) throws IOException {
+    Currency currency = BinaryCodec.currencyOf(header);
+    if ((header & 1) == 0) {
+      return Money.ofMinorUnits(BinaryCodec.readSigned(source), currency);
+    }
+    byte[] bytes = new byte[BinaryCodec.readCount(source)];
+    BinaryCodec.readBytes(source, bytes);
+    return new Money(new BigDecimal(new BigInteger(bytes), currency.getDefaultFractionDigits()), currency);
+  }
+
+  private static void writeMonies(Object sink, Money[] monies) throws IOException {
+    BinaryCodec.writeUnsigned(sink, monies.length);
+    int start = 0;
+    while (start < monies.length) {
+      Currency currency = monies[start].getCurrency();
+      boolean big = monies[start].getAmount().unscaledValue().bitLength() > 63;
+      int end = start + 1;
+      while (end < monies.length
+        && monies[end].getCurrency().equals(currency)
+        && monies[end].getAmount().unscaledValue().bitLength() > 63 == big) {
+        end++;
+      }
+      BinaryCodec.writeUnsigned(sink, BinaryCodec.header(currency, big));
+      BinaryCodec.writeUnsigned(sink, end - start);
+      for (int i = start; i < end; i++) {
+        BinaryCodec.writeUnits(sink, monies[i].getAmount().unscaledValue(), big);
+      }
+      start = end;
+    }
+  }
+
+  private static Money[] readMonies(Object source) throws IOException {
+    Money[] monies = new Money[BinaryCodec.readCount(source)];
+    int i = 0;
+    while (i < monies.length) {
+      long header = BinaryCodec.readUnsigned(source);
+      int run = BinaryCodec.readCount(source);
+      if (run == 0 || run > monies.length - i) {
+        throw new IllegalArgumentException("Malformed run of " + run + " monies");
+      }
+      for (int end = i + run; i < end; i++) {
+        monies[i] = BinaryCodec.readMoney(source, header);
+      }
+    }
+    return monies;
+  }
+
+  private static void writeUnits(Object sink, BigInteger units, boolean big) throws IOException {
+    if (big) {
+      byte[] bytes = units.toByteArray();
+      BinaryCodec.writeUnsigned(sink, bytes.length);
+      BinaryCodec.writeBytes(sink, bytes);
+    } else {
+      BinaryCodec.writeSigned(sink, units.longValue());
+    }
+  }
+
+  /** @return the currency code at 5 bits per letter, shifted left one for the "too big for a long" flag */
+  private static long header(Currency currency, boolean big) {
+    String code = currency.getCurrencyCode();
+    if (code.length() != 3) {
+      throw new IllegalArgumentException("Unsupported currency: " + currency);
+    }
+    int index = 0;
+    for (int i = 0; i < 3; i++) {
+      char letter = code.charAt(i);
+      if (letter < 'A' || letter > 'Z') {
+        throw new IllegalArgumentException("Unsupported currency: " + currency);
+      }
+      index = index << 5 | (letter - 'A');
+    }
+    return (long) index << 1 | (big ? 1 : 0);
+  }
+
+  private static Currency currencyOf(long header) {
+    int index = (int) (header >>> 1);
+    if (index >= CURRENCIES.length) {
+      throw new IllegalArgumentException("Malformed currency code");
+    }
+    Currency currency = CURRENCIES[index];
+    if (currency == null) {
+      char[] code = { (char) ('A' + (index >> 10 & 0x1F)), (char) ('A' + (index >> 5 & 0x1F)), (char) ('A' + (index & 0x1F)) };
+      currency = Currency.getInstance(new String(code));
+      CURRENCIES[index] = currency;
+    }
+    return currency;
+  }
+
+  private static int pack(CalendarDate date) {
+    return date.getYear() << 9 | date.getMonth() << 5 | date.getDay();
+  }
+
+  private static CalendarDate unpack(long packed) {
+    int value = (int) packed;
+    return CalendarDate.from(value >> 9, value >> 5 & 0xF, value & 0x1F);
+  }
+
+  private static int unitCode(TimeUnit unit) {
+    for (int i = 0; i < UNITS.length; i++) {
+      if (UNITS[i].equals(unit)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported unit: " + unit);
+  }
+
+  private static TimeUnit unitOf(int code) {
+    if (code < 0 || code >= UNITS.length) {
+      throw new IllegalArgumentException("Malformed unit code " + code);
+    }
+    return UNITS[code];
+  }
+
+  private static int flags(boolean lower, boolean lowerClosed, boolean upper, boolean upperClosed) {
+    return (lower ? LOWER : 0) | (lowerClosed ? LOWER_CLOSED : 0) | (upper ? UPPER : 0) | (upperClosed ? UPPER_CLOSED : 0);
+  }
+
+  private static void writeByte(Object sink, int value) throws IOException {
+    if (sink instanceof ByteBuffer) {
+      ((ByteBuffer) sink).put((byte) value);
+    } else {
+      ((DataOutput) sink).writeByte(value);
+    }
+  }
+
+  private static void writeBytes(Object sink, byte[] bytes) throws IOException {
+    if (sink instanceof ByteBuffer) {
+      ((ByteBuffer) sink).put(bytes);
+    } else {
+      ((DataOutput) sink).write(bytes);
+    }
+  }
+
+  private static void writeUnsigned(Object sink, long value) throws IOException {
+    if (sink instanceof ByteBuffer) {
+      Varints.writeUnsigned((ByteBuffer) sink, value);
+    } else {
+      Varints.writeUnsigned((DataOutput) sink, value);
+    }
+  }
+
+  private static void writeSigned(Object sink, long value) throws IOException {
+    BinaryCodec.writeUnsigned(sink, Varints.zigzag(value));
+  }
+
+  private static int readByte(Object source) throws IOException {
+    return source instanceof ByteBuffer ? ((ByteBuffer) source).get() : ((DataInput) source).readByte();
+  }
+
+  private static void readBytes(Object source, byte[] bytes) throws IOException {
+    if (source instanceof ByteBuffer) {
+      ((ByteBuffer) source).get(bytes);
+    } else {
+      ((DataInput) source).readFully(bytes);
+    }
+  }
+
+  private static long readUnsigned(Object source) throws IOException {
+    return source instanceof ByteBuffer ? Varints.readUnsigned((ByteBuffer) source) : Varints.readUnsigned((DataInput) source);
+  }
+
+  private static long readSigned(Object source) throws IOException {
+    return Varints.unzigzag(BinaryCodec.readUnsigned(source));
+  }
+
+  private static int readCount(Object source) throws IOException {
+    long count = BinaryCodec.readUnsigned(source);
+    if (count < 0 || count > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Malformed count " + count);
+    }
+    return (int) count;
+  }
+
+}
@@ -0,0 +1,95 @@
+package com.domainlanguage.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Variable-length integers: seven bits per byte, least significant group first, with the high bit set on every byte
+ * but the last. Signed values are zigzag encoded first, so small negative numbers stay short, e.g. -1 takes one byte
+ * rather than ten.
+ */
+public final class Varints {
+
+  /** The most bytes a varint of a long can take. */
+  public static final int MAX_LONG_BYTES = 10;
+
+  public static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  public static long unzigzag(long encoded) {
+    return (encoded >>> 1) ^ -(encoded & 1);
+  }
+
+  /** @return how many bytes {@link #writeUnsigned(ByteBuffer, long)} takes for {@code value} */
+  public static int sizeOfUnsigned(long value) {
+    int size = 1;
+    while ((value & ~0x7FL) != 0) {
+      value >>>= 7;
+      size++;
+    }
+    return size;
+  }
+
+  public static void writeUnsigned(ByteBuffer buffer, long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  public static void writeUnsigned(DataOutput out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  public static void writeSigned(ByteBuffer buffer, long value) {
+    Varints.writeUnsigned(buffer, Varints.zigzag(value));
+  }
+
+  public static void writeSigned(DataOutput out, long value) throws IOException {
+    Varints.writeUnsigned(out, Varints.zigzag(value));
+  }
+
+  public static long readUnsigned(ByteBuffer buffer) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint");
+  }
+
+  public static long readUnsigned(DataInput in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = in.readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint");
+  }
+
+  public static long readSigned(ByteBuffer buffer) {
+    return Varints.unzigzag(Varints.readUnsigned(buffer));
+  }
+
+  public static long readSigned(DataInput in) throws IOException {
+    return Varints.unzigzag(Varints.readUnsigned(in));
+  }
+
+  private Varints() {
+  }
+
+}
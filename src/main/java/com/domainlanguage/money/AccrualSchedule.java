@@ -0,0 +1,187 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+
+import com.domainlanguage.base.Rational;
+import com.domainlanguage.time.CalendarDate;
+import com.domainlanguage.time.CalendarInterval;
+import com.domainlanguage.time.Duration;
+
+/**
+ * Interest on a balance at an annual rate over the periods of a {@link CalendarInterval}, each period's rate being the
+ * annual rate times the period's year fraction under a {@link DayCountConvention}. Each period's interest is rounded
+ * to the minor unit, as it would be posted, and with compounding is added to the balance the next period accrues on.
+ *
+ * The per-period rates are worked out once, as exact fractions of longs, so a schedule can be shared by many accounts:
+ * each one then costs a long multiply and divide per period, falling back to BigInteger only for balances that
+ * overflow. Schedules are immutable.
+ */
+public class AccrualSchedule {
+
+  private final List<CalendarInterval> periods;
+  private final Rational[] rates;
+  private final Multiplier[] multipliers;
+  private final boolean compounding;
+
+  /** @return a schedule accruing simple interest over {@code interval} as a single period */
+  public static AccrualSchedule simple(CalendarInterval interval, BigDecimal annualRate, DayCountConvention dayCount) {
+    return AccrualSchedule.simple(interval, annualRate, dayCount, Duration.days(interval.lengthInDaysInt()));
+  }
+
+  /** @return a schedule accruing simple interest on the principal every {@code period} */
+  public static AccrualSchedule simple(
+    CalendarInterval interval,
+    BigDecimal annualRate,
+    DayCountConvention dayCount,
+    Duration period) {
+    return new AccrualSchedule(PeriodProration.periods(interval, period), annualRate, dayCount, false);
+  }
+
+  /** @return a schedule compounding interest every {@code compoundingPeriod} */
+  public static AccrualSchedule compounded(
+    CalendarInterval interval,
+    BigDecimal annualRate,
+    DayCountConvention dayCount,
+    Duration compoundingPeriod) {
+    return new AccrualSchedule(PeriodProration.periods(interval, compoundingPeriod), annualRate, dayCount, true);
+  }
+
+  /** @return what {@code rate}, e.g. a fee per day, accrues to over the days of {@code interval}, rounded once */
+  public static Money accrued(MoneyTimeRate rate, CalendarInterval interval, int roundingMode) {
+    return MoneyExpression.over(rate, Duration.days(interval.lengthInDaysInt())).evaluate(roundingMode);
+  }
+
+  private AccrualSchedule(
+    List<CalendarInterval> periods,
+    BigDecimal annualRate,
+    DayCountConvention dayCount,
+    boolean compounding) {
+    this.periods = Collections.unmodifiableList(periods);
+    this.compounding = compounding;
+    Rational rate = Rational.of(annualRate);
+    rates = new Rational[periods.size()];
+    multipliers = new Multiplier[periods.size()];
+    for (int i = 0; i < rates.length; i++) {
+      CalendarInterval period = periods.get(i);
+      CalendarDate end = CalendarDate.fromEpochDay(period.end().toEpochDay() + 1);
+      rates[i] = rate.times(dayCount.yearFraction(period.start(), end));
+      multipliers[i] = Multiplier.of(rates[i]);
+    }
+  }
+
+  public List<CalendarInterval> getPeriods() {
+    return periods;
+  }
+
+  public boolean isCompounding() {
+    return compounding;
+  }
+
+  /** @return the interest accrued in each period */
+  public Money[] accruals(Money principal, int roundingMode) {
+    long[] accruals = new long[rates.length];
+    Money[] results = new Money[rates.length];
+    if (MinorUnits.fits(principal.getAmount())) {
+      try {
+        accrue(MinorUnits.of(principal), roundingMode, accruals);
+        for (int i = 0; i < results.length; i++) {
+          results[i] = MinorUnits.toMoney(accruals[i], principal.getCurrency());
+        }
+        return results;
+      } catch (ArithmeticException overflowOrRounding) {
+        // redo it in BigIntegers, which rethrows any rounding error
+      }
+    }
+    BigInteger[] bigAccruals = new BigInteger[rates.length];
+    bigAccrue(principal.getAmount().unscaledValue(), roundingMode, bigAccruals);
+    for (int i = 0; i < results.length; i++) {
+      results[i] = MinorUnits.toMoney(bigAccruals[i], principal.getCurrency());
+    }
+    return results;
+  }
+
+  /** @return the interest accrued over the whole schedule */
+  public Money interest(Money principal, int roundingMode) {
+    if (MinorUnits.fits(principal.getAmount())) {
+      try {
+        return MinorUnits.toMoney(accrue(MinorUnits.of(principal), roundingMode, null), principal.getCurrency());
+      } catch (ArithmeticException overflowOrRounding) {
+        // redo it in BigIntegers, which rethrows any rounding error
+      }
+    }
+    BigInteger interest = bigAccrue(principal.getAmount().unscaledValue(), roundingMode, null);
+    return MinorUnits.toMoney(interest, principal.getCurrency());
+  }
+
+  /** @return the principal plus the interest accrued over the whole schedule */
+  public Money balance(Money principal, int roundingMode) {
+    return principal.plus(interest(principal, roundingMode));
+  }
+
+  /** @return the interest on each of {@code principals} */
+  public Money[] interest(Money[] principals, int roundingMode) {
+    Money[] results = new Money[principals.length];
+    for (int i = 0; i < principals.length; i++) {
+      results[i] = interest(principals[i], roundingMode);
+    }
+    return results;
+  }
+
+  /** @return a column of the interest on each of {@code principals} */
+  public MoneyColumn interest(MoneyColumn principals, int roundingMode) {
+    MoneyColumn results = new MoneyColumn(principals.getCurrency(), principals.size());
+    for (int i = 0; i < principals.size(); i++) {
+      if (principals.fitsInLong(i)) {
+        try {
+          results.add(accrue(principals.minorUnits(i), roundingMode, null));
+          continue;
+        } catch (ArithmeticException overflowOrRounding) {
+          // redo it in BigIntegers below
+        }
+      }
+      results.add(interest(principals.get(i), roundingMode));
+    }
+    return results;
+  }
+
+  private long accrue(long principal, int roundingMode, long[] accruals) {
+    long balance = principal;
+    long total = 0;
+    for (int i = 0; i < multipliers.length; i++) {
+      if (!multipliers[i].isExact()) {
+        throw new ArithmeticException("Rate " + rates[i] + " does not fit in longs");
+      }
+      long accrued = multipliers[i].apply(balance, roundingMode);
+      total = Math.addExact(total, accrued);
+      if (compounding) {
+        balance = Math.addExact(balance, accrued);
+      }
+      if (accruals != null) {
+        accruals[i] = accrued;
+      }
+    }
+    return total;
+  }
+
+  private BigInteger bigAccrue(BigInteger principal, int roundingMode, BigInteger[] accruals) {
+    BigInteger balance = principal;
+    BigInteger total = BigInteger.ZERO;
+    for (int i = 0; i < rates.length; i++) {
+      BigInteger accrued = new BigDecimal(balance.multiply(rates[i].getNumerator()))
+        .divide(new BigDecimal(rates[i].getDenominator()), 0, roundingMode)
+        .toBigIntegerExact();
+      total = total.add(accrued);
+      if (compounding) {
+        balance = balance.add(accrued);
+      }
+      if (accruals != null) {
+        accruals[i] = accrued;
+      }
+    }
+    return total;
+  }
+
+}
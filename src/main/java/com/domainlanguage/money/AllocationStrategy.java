@@ -0,0 +1,38 @@
+package com.domainlanguage.money;
+
+/**
+ * Decides which parts of a proration get the minor units left over once every part has been rounded toward zero.
+ *
+ * @see Proration#proratedOver(Money, long[], AllocationStrategy)
+ * @see ProrationPlan#using(AllocationStrategy)
+ */
+public interface AllocationStrategy {
+
+  /** Spreads the leftover as evenly as possible from the first part on; the default, and the fastest. */
+  AllocationStrategy ROUND_ROBIN = new Allocations.RoundRobin();
+
+  /** Gives the leftover to the parts that lost the most to rounding (Hamilton's method), ties going to earlier parts. */
+  AllocationStrategy LARGEST_REMAINDER = new Allocations.LargestRemainder(false, 0);
+
+  /**
+   * Rounds each part to the nearest minor unit, halves to even, then settles any difference from the total with the
+   * parts nearest to rounding the other way.
+   */
+  AllocationStrategy BANKERS = new Allocations.Bankers();
+
+  /**
+   * Gives the leftover to the parts that lost the most to rounding, breaking ties in a pseudo-random order fixed by
+   * {@code seed}, so equal parts share the extra minor units fairly but reproducibly.
+   */
+  static AllocationStrategy largestRemainder(long seed) {
+    return new Allocations.LargestRemainder(true, seed);
+  }
+
+  /**
+   * Adds {@code leftover} minor units, in total, to {@code shares}. Each share was rounded toward zero from its exact
+   * value of {@code shares[i] + remainders[i] / denominator}, where the denominator is positive and every remainder is
+   * smaller than it in magnitude and has the sign of the total.
+   */
+  void allocate(long[] shares, long[] remainders, long denominator, long leftover);
+
+}
@@ -0,0 +1,168 @@
+package com.domainlanguage.money;
+
+/**
+ * The built-in {@link AllocationStrategy}s. Choosing which parts get the leftover is a partial selection, done with
+ * quickselect in expected linear time rather than by sorting.
+ */
+final class Allocations {
+
+  static final class RoundRobin implements AllocationStrategy {
+    public void allocate(long[] shares, long[] remainders, long denominator, long leftover) {
+      ProrationKernel.distribute(leftover, shares);
+    }
+
+    @Override
+    public String toString() {
+      return "ROUND_ROBIN";
+    }
+  }
+
+  static final class LargestRemainder implements AllocationStrategy {
+    private final boolean random;
+    private final long seed;
+
+    LargestRemainder(boolean random, long seed) {
+      this.random = random;
+      this.seed = seed;
+    }
+
+    public void allocate(long[] shares, long[] remainders, long denominator, long leftover) {
+      Allocations.select(shares, remainders, leftover, this);
+    }
+
+    /** @return the priority of part {@code i} among parts with equal remainders; distinct for every part */
+    long rank(int i) {
+      if (!random) {
+        return -i;
+      }
+      // the SplitMix64 finalizer, a bijection, over a Weyl sequence
+      long z = seed + (i + 1L) * 0x9E3779B97F4A7C15L;
+      z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+      z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+      return z ^ (z >>> 31);
+    }
+
+    @Override
+    public String toString() {
+      return random ? "largestRemainder(" + seed + ")" : "LARGEST_REMAINDER";
+    }
+  }
+
+  static final class Bankers implements AllocationStrategy {
+    public void allocate(long[] shares, long[] remainders, long denominator, long leftover) {
+      // what's still owed to each part after rounding, over the denominator
+      long[] residuals = new long[shares.length];
+      long rounded = 0;
+      for (int i = 0; i < shares.length; i++) {
+        long remainder = remainders[i];
+        long magnitude = Math.abs(remainder);
+        // compares the remainder against half the denominator without overflowing
+        int half = Long.compare(magnitude, denominator - magnitude);
+        if (half > 0 || (half == 0 && (shares[i] & 1) != 0)) {
+          long step = Long.signum(remainder);
+          shares[i] += step;
+          residuals[i] = remainder - step * denominator;
+          rounded += step;
+        } else {
+          residuals[i] = remainder;
+        }
+      }
+      Allocations.select(shares, residuals, leftover - rounded, (LargestRemainder) AllocationStrategy.LARGEST_REMAINDER);
+    }
+
+    @Override
+    public String toString() {
+      return "BANKERS";
+    }
+  }
+
+  /**
+   * Adds {@code count} minor units to {@code shares}, one apiece to the parts with the largest residuals if count is
+   * positive, or taking one apiece from those with the smallest if it's negative. If count is more than there are
+   * parts, every part first gets an equal number.
+   */
+  static void select(long[] shares, long[] residuals, long count, LargestRemainder ties) {
+    int n = shares.length;
+    if (count == 0) {
+      return;
+    }
+    long each = count / n;
+    int extra = (int) Math.abs(count % n);
+    long step = Long.signum(count);
+    if (each != 0) {
+      for (int i = 0; i < n; i++) {
+        shares[i] = Math.addExact(shares[i], each);
+      }
+    }
+    if (extra == 0) {
+      return;
+    }
+    // the extra parts are those whose key, the residual signed toward the count, is largest
+    long[] scratch = new long[n];
+    for (int i = 0; i < n; i++) {
+      scratch[i] = step * residuals[i];
+    }
+    long threshold = Allocations.kthLargest(scratch, n, extra - 1);
+    int tied = 0;
+    for (int i = 0; i < n; i++) {
+      long key = step * residuals[i];
+      if (key > threshold) {
+        shares[i] += step;
+        extra--;
+      } else if (key == threshold) {
+        scratch[tied++] = ties.rank(i);
+      }
+    }
+    if (extra == 0) {
+      return;
+    }
+    long lowestRank = Allocations.kthLargest(scratch, tied, extra - 1);
+    for (int i = 0; i < n; i++) {
+      if (step * residuals[i] == threshold && ties.rank(i) >= lowestRank) {
+        shares[i] += step;
+      }
+    }
+  }
+
+  /** @return the {@code k}th largest (from 0) of the first {@code length} values, which are reordered */
+  static long kthLargest(long[] values, int length, int k) {
+    int left = 0;
+    int right = length - 1;
+    while (left < right) {
+      int middle = (left + right) >>> 1;
+      long pivot = Allocations.median(values[left], values[middle], values[right]);
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (values[i] > pivot) {
+          i++;
+        }
+        while (values[j] < pivot) {
+          j--;
+        }
+        if (i <= j) {
+          long swap = values[i];
+          values[i++] = values[j];
+          values[j--] = swap;
+        }
+      }
+      // now values[left..j] >= pivot >= values[i..right], and anything between equals the pivot
+      if (k <= j) {
+        right = j;
+      } else if (k >= i) {
+        left = i;
+      } else {
+        return pivot;
+      }
+    }
+    return values[left];
+  }
+
+  private static long median(long a, long b, long c) {
+    return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+  }
+
+  private Allocations() {
+  }
+
+}
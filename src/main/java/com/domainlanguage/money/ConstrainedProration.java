@@ -0,0 +1,156 @@
+package com.domainlanguage.money;
+
+import java.util.Currency;
+
+/**
+ * Prorates a total over weights, subject to a floor and a cap on each part, e.g. fee splits with per-party minimums
+ * and maximums. A null bounds array, or a null element in one, leaves those parts unbounded.
+ *
+ * Each pass prorates what's left over the parts not yet fixed; if the parts over their caps are over by more than the
+ * parts under their floors are under, the former are fixed at their caps, otherwise the latter are fixed at their
+ * floors. Every pass fixes at least one part, so there are at most as many passes as parts, each one over long minor
+ * units. Bounds that can't all be met, because the floors sum to more than the total or the caps to less, are
+ * reported up front with an {@link IllegalArgumentException}.
+ */
+public class ConstrainedProration {
+
+  public static Money[] proratedOver(Money total, long[] proportions, Money[] floors, Money[] caps) {
+    return ConstrainedProration.proratedOver(total, proportions, floors, caps, AllocationStrategy.ROUND_ROBIN);
+  }
+
+  /** As {@link #proratedOver(Money, long[], Money[], Money[])}, but with the leftover given out by {@code strategy}. */
+  public static Money[] proratedOver(
+    Money total,
+    long[] proportions,
+    Money[] floors,
+    Money[] caps,
+    AllocationStrategy strategy) {
+    int n = proportions.length;
+    Currency currency = total.getCurrency();
+    long[] lows = ConstrainedProration.bounds(floors, n, currency, Long.MIN_VALUE);
+    long[] highs = ConstrainedProration.bounds(caps, n, currency, Long.MAX_VALUE);
+    for (int i = 0; i < n; i++) {
+      if (proportions[i] < 0) {
+        throw new IllegalArgumentException("Negative proportion " + proportions[i]);
+      }
+      if (lows[i] > highs[i]) {
+        throw new IllegalArgumentException("Floor " + floors[i] + " is above cap " + caps[i]);
+      }
+    }
+    long[] shares = ConstrainedProration.prorate(MinorUnits.of(total), proportions, lows, highs, strategy);
+    Money[] results = new Money[n];
+    for (int i = 0; i < n; i++) {
+      results[i] = MinorUnits.toMoney(shares[i], currency);
+    }
+    return results;
+  }
+
+  private static long[] prorate(long total, long[] proportions, long[] lows, long[] highs, AllocationStrategy strategy) {
+    int n = proportions.length;
+    if (ConstrainedProration.sum(lows, Long.MIN_VALUE) > total) {
+      throw new IllegalArgumentException("Floors sum to more than " + total + " minor units");
+    }
+    if (ConstrainedProration.sum(highs, Long.MAX_VALUE) < total) {
+      throw new IllegalArgumentException("Caps sum to less than " + total + " minor units");
+    }
+    long[] shares = new long[n];
+    boolean[] fixed = new boolean[n];
+    int[] active = new int[n];
+    long remaining = total;
+    int unfixed = n;
+    while (unfixed > 0) {
+      int count = 0;
+      long weightSum = 0;
+      for (int i = 0; i < n; i++) {
+        if (!fixed[i]) {
+          active[count++] = i;
+          weightSum = Math.addExact(weightSum, proportions[i]);
+        }
+      }
+      if (weightSum == 0) {
+        // no weight left to prorate over; the leftover is placed within the bounds below
+        break;
+      }
+      long[] weights = new long[count];
+      for (int j = 0; j < count; j++) {
+        weights[j] = proportions[active[j]];
+      }
+      long[] parts = ProrationKernel.of(weights).prorate(remaining, new long[count], strategy);
+      long excess = 0;
+      long deficit = 0;
+      for (int j = 0; j < count; j++) {
+        int i = active[j];
+        shares[i] = parts[j];
+        if (parts[j] > highs[i]) {
+          excess = Math.addExact(excess, parts[j] - highs[i]);
+        } else if (parts[j] < lows[i]) {
+          deficit = Math.addExact(deficit, lows[i] - parts[j]);
+        }
+      }
+      if (excess == 0 && deficit == 0) {
+        return shares;
+      }
+      boolean capping = excess > deficit;
+      for (int j = 0; j < count; j++) {
+        int i = active[j];
+        long bound = capping ? highs[i] : lows[i];
+        if (capping ? shares[i] > bound : shares[i] < bound) {
+          shares[i] = bound;
+          fixed[i] = true;
+          remaining -= bound;
+          unfixed--;
+        }
+      }
+    }
+    // every part is fixed, or the rest have no weight: whatever minor units rounding left over go to parts with room
+    long leftover = total;
+    for (int i = 0; i < n; i++) {
+      if (!fixed[i]) {
+        shares[i] = Math.min(Math.max(0, lows[i]), highs[i]);
+      }
+      leftover -= shares[i];
+    }
+    for (int i = 0; i < n && leftover != 0; i++) {
+      long room = leftover > 0
+        ? (highs[i] == Long.MAX_VALUE ? leftover : highs[i] - shares[i])
+        : (lows[i] == Long.MIN_VALUE ? leftover : lows[i] - shares[i]);
+      long step = leftover > 0 ? Math.min(leftover, room) : Math.max(leftover, room);
+      shares[i] += step;
+      leftover -= step;
+    }
+    return shares;
+  }
+
+  private static long[] bounds(Money[] bounds, int n, Currency currency, long unbounded) {
+    long[] units = new long[n];
+    if (bounds != null && bounds.length != n) {
+      throw new IllegalArgumentException("Expected " + n + " bounds, not " + bounds.length);
+    }
+    for (int i = 0; i < n; i++) {
+      if (bounds == null || bounds[i] == null) {
+        units[i] = unbounded;
+      } else {
+        MoneySummation.assertCurrency(bounds[i], currency);
+        units[i] = MinorUnits.of(bounds[i]);
+      }
+    }
+    return units;
+  }
+
+  /** @return the sum of {@code bounds}, or {@code unbounded} if any of them is; a sum that doesn't fit saturates */
+  private static long sum(long[] bounds, long unbounded) {
+    long sum = 0;
+    for (int i = 0; i < bounds.length; i++) {
+      if (bounds[i] == unbounded) {
+        return unbounded;
+      }
+      try {
+        sum = Math.addExact(sum, bounds[i]);
+      } catch (ArithmeticException overflow) {
+        return bounds[i] > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+      }
+    }
+    return sum;
+  }
+
+}
@@ -0,0 +1,83 @@
+package com.domainlanguage.money;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Assigns each available {@link Currency} a small, dense ordinal so that per-currency state can live in arrays.
+ *
+ * Ordinals are only stable within a JVM, so they must never be persisted.
+ */
+final class Currencies {
+
+  private static final int LETTERS = 26;
+  // ordinal + 1, indexed by the three-letter ISO code, so 0 means "unknown"
+  private static final short[] ORDINALS = new short[LETTERS * LETTERS * LETTERS];
+  private static final Currency[] CURRENCIES;
+
+  static {
+    List<Currency> all = new ArrayList<Currency>(Currency.getAvailableCurrencies());
+    Collections.sort(all, new Comparator<Currency>() {
+      public int compare(Currency a, Currency b) {
+        return a.getCurrencyCode().compareTo(b.getCurrencyCode());
+      }
+    });
+    CURRENCIES = all.toArray(new Currency[all.size()]);
+    for (int i = 0; i < CURRENCIES.length; i++) {
+      int index = Currencies.codeIndex(CURRENCIES[i].getCurrencyCode());
+      if (index >= 0) {
+        ORDINALS[index] = (short) (i + 1);
+      }
+    }
+  }
+
+  static int ordinal(Currency currency) {
+    int index = Currencies.codeIndex(currency.getCurrencyCode());
+    int ordinal = index < 0 ? -1 : ORDINALS[index] - 1;
+    if (ordinal < 0) {
+      throw new IllegalArgumentException("Unsupported currency: " + currency);
+    }
+    return ordinal;
+  }
+
+  /** @return the ordinal of the currency with the ISO code {@code abc}, or -1 if there isn't one */
+  static int ordinal(int a, int b, int c) {
+    if (!Currencies.isLetter(a) || !Currencies.isLetter(b) || !Currencies.isLetter(c)) {
+      return -1;
+    }
+    return ORDINALS[((a - 'A') * LETTERS + (b - 'A')) * LETTERS + (c - 'A')] - 1;
+  }
+
+  static Currency get(int ordinal) {
+    return CURRENCIES[ordinal];
+  }
+
+  static int count() {
+    return CURRENCIES.length;
+  }
+
+  private static int codeIndex(String code) {
+    if (code.length() != 3) {
+      return -1;
+    }
+    int index = 0;
+    for (int i = 0; i < 3; i++) {
+      if (!Currencies.isLetter(code.charAt(i))) {
+        return -1;
+      }
+      index = index * LETTERS + (code.charAt(i) - 'A');
+    }
+    return index;
+  }
+
+  private static boolean isLetter(int c) {
+    return c >= 'A' && c <= 'Z';
+  }
+
+  private Currencies() {
+  }
+
+}
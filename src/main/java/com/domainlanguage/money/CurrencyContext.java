@@ -0,0 +1,75 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+/**
+ * Per-currency constants (scale, zero, minimum increment and symbol), created once per currency and looked up by the
+ * currency's dense ordinal, so the hot predicates and factories in {@link Money} don't allocate.
+ */
+public class CurrencyContext {
+
+  private static final CurrencyContext[] CONTEXTS = new CurrencyContext[Currencies.count()];
+
+  private final Currency currency;
+  private final int scale;
+  private final Money zero;
+  private final Money minimumIncrement;
+  private final String symbol;
+
+  public static CurrencyContext of(Currency currency) {
+    int ordinal = Currencies.ordinal(currency);
+    // contexts are immutable, so racing to create one is harmless
+    CurrencyContext context = CONTEXTS[ordinal];
+    if (context == null) {
+      context = new CurrencyContext(currency);
+      CONTEXTS[ordinal] = context;
+    }
+    return context;
+  }
+
+  private CurrencyContext(Currency currency) {
+    this.currency = currency;
+    scale = currency.getDefaultFractionDigits();
+    zero = new Money(BigDecimal.valueOf(0, scale), currency);
+    minimumIncrement = new Money(BigDecimal.valueOf(1, scale), currency);
+    symbol = CurrencyContext.symbolOf(currency);
+  }
+
+  public Currency getCurrency() {
+    return currency;
+  }
+
+  public int getScale() {
+    return scale;
+  }
+
+  public Money getZero() {
+    return zero;
+  }
+
+  public Money getMinimumIncrement() {
+    return minimumIncrement;
+  }
+
+  public boolean hasSymbol() {
+    return symbol != null;
+  }
+
+  /** @return the symbol per {@link CurrencyUtils#getSymbol(Currency)}, which throws for unsupported currencies */
+  public String getSymbol() {
+    if (symbol == null) {
+      throw new IllegalStateException("Unsupported currency: " + currency);
+    }
+    return symbol;
+  }
+
+  private static String symbolOf(Currency currency) {
+    try {
+      return CurrencyUtils.getSymbol(currency);
+    } catch (IllegalStateException unsupported) {
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,113 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.domainlanguage.base.Rounding;
+import com.domainlanguage.time.CalendarDate;
+
+/**
+ * Converts {@link Money} between currencies using an {@link ExchangeRateProvider}.
+ *
+ * Recently used rates are kept in a bounded, least-recently-used cache, so a slow provider is only asked once per
+ * currency pair and date. Converters are thread safe if their provider is.
+ */
+public class CurrencyConverter {
+
+  private static final int DEFAULT_CACHE_SIZE = 1024;
+
+  private final ExchangeRateProvider provider;
+  private final int roundingMode;
+  private final Map<RateKey, BigDecimal> cache;
+
+  public CurrencyConverter(ExchangeRateProvider provider) {
+    this(provider, Rounding.HALF_EVEN, CurrencyConverter.DEFAULT_CACHE_SIZE);
+  }
+
+  public CurrencyConverter(ExchangeRateProvider provider, int roundingMode, final int cacheSize) {
+    this.provider = provider;
+    this.roundingMode = roundingMode;
+    cache = new LinkedHashMap<RateKey, BigDecimal>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<RateKey, BigDecimal> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  public Money convert(Money money, Currency to, CalendarDate date) {
+    if (money.getCurrency().equals(to)) {
+      return money;
+    }
+    return convert(money, to, rate(money.getCurrency(), to, date));
+  }
+
+  /** Converts each of {@code monies}, looking up the rate only once per source currency. */
+  public Money[] convert(Money[] monies, Currency to, CalendarDate date) {
+    BigDecimal[] rates = new BigDecimal[Currencies.count()];
+    Money[] result = new Money[monies.length];
+    for (int i = 0; i < monies.length; i++) {
+      Currency from = monies[i].getCurrency();
+      if (from.equals(to)) {
+        result[i] = monies[i];
+        continue;
+      }
+      int ordinal = Currencies.ordinal(from);
+      if (rates[ordinal] == null) {
+        rates[ordinal] = rate(from, to, date);
+      }
+      result[i] = convert(monies[i], to, rates[ordinal]);
+    }
+    return result;
+  }
+
+  public BigDecimal rate(Currency from, Currency to, CalendarDate date) {
+    RateKey key = new RateKey(from, to, date);
+    synchronized (cache) {
+      BigDecimal rate = cache.get(key);
+      if (rate != null) {
+        return rate;
+      }
+    }
+    BigDecimal rate = provider.rate(from, to, date);
+    synchronized (cache) {
+      cache.put(key, rate);
+    }
+    return rate;
+  }
+
+  private Money convert(Money money, Currency to, BigDecimal rate) {
+    return Money.valueOf(money.getAmount().multiply(rate), to, roundingMode);
+  }
+
+  private static class RateKey {
+    private final Currency from;
+    private final Currency to;
+    private final CalendarDate date;
+
+    private RateKey(Currency from, Currency to, CalendarDate date) {
+      this.from = from;
+      this.to = to;
+      this.date = date;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      if (object instanceof RateKey) {
+        RateKey other = (RateKey) object;
+        return from.equals(other.from) && to.equals(other.to) && date.equals(other.date);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return (from.hashCode() * 31 + to.hashCode()) * 31 + date.hashCode();
+    }
+  }
+
+}
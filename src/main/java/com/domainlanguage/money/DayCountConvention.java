@@ -0,0 +1,25 @@
+package com.domainlanguage.money;
+
+import com.domainlanguage.base.Rational;
+import com.domainlanguage.time.CalendarDate;
+
+/**
+ * How much of a year interest accrues for between two dates, for converting annual rates to the rate over a period.
+ *
+ * @see AccrualSchedule
+ */
+public interface DayCountConvention {
+
+  /** Actual days elapsed over a 360-day year. */
+  DayCountConvention ACTUAL_360 = new DayCounts.Actual(360);
+
+  /** Actual days elapsed over a 365-day year, leap years included. */
+  DayCountConvention ACTUAL_365 = new DayCounts.Actual(365);
+
+  /** Every month counted as 30 days, over a 360-day year (the US bond basis). */
+  DayCountConvention THIRTY_360 = new DayCounts.Thirty360();
+
+  /** @return the fraction of a year from {@code start} up to, but not including, {@code end} */
+  Rational yearFraction(CalendarDate start, CalendarDate end);
+
+}
@@ -0,0 +1,46 @@
+package com.domainlanguage.money;
+
+import com.domainlanguage.base.Rational;
+import com.domainlanguage.time.CalendarDate;
+
+/** The built-in {@link DayCountConvention}s, all counting days with epoch-day or field arithmetic, not Calendars. */
+final class DayCounts {
+
+  static final class Actual implements DayCountConvention {
+    private final int daysPerYear;
+
+    Actual(int daysPerYear) {
+      this.daysPerYear = daysPerYear;
+    }
+
+    public Rational yearFraction(CalendarDate start, CalendarDate end) {
+      return Rational.of(end.toEpochDay() - start.toEpochDay(), daysPerYear);
+    }
+
+    @Override
+    public String toString() {
+      return "ACTUAL_" + daysPerYear;
+    }
+  }
+
+  static final class Thirty360 implements DayCountConvention {
+    public Rational yearFraction(CalendarDate start, CalendarDate end) {
+      int startDay = Math.min(start.getDay(), 30);
+      int endDay = end.getDay();
+      if (startDay == 30 && endDay == 31) {
+        endDay = 30;
+      }
+      long days = 360L * (end.getYear() - start.getYear()) + 30 * (end.getMonth() - start.getMonth()) + endDay - startDay;
+      return Rational.of(days, 360);
+    }
+
+    @Override
+    public String toString() {
+      return "THIRTY_360";
+    }
+  }
+
+  private DayCounts() {
+  }
+
+}
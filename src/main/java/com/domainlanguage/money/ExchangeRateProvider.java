@@ -0,0 +1,17 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import com.domainlanguage.time.CalendarDate;
+
+/** A source of exchange rates, e.g. an {@link ExchangeRateTable} or a feed from a market data service. */
+public interface ExchangeRateProvider {
+
+  /**
+   * @return how many units of {@code to} one unit of {@code from} buys on {@code date}, or throws
+   *         {@link IllegalArgumentException} if the rate is not known
+   */
+  BigDecimal rate(Currency from, Currency to, CalendarDate date);
+
+}
@@ -0,0 +1,162 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.domainlanguage.time.CalendarDate;
+
+/**
+ * Time-versioned exchange rates, quoted against a single base currency and triangulated through it.
+ *
+ * Each version is effective from its date until the next version's date, and carries forward any rate of the
+ * versions before it that it doesn't put itself, so only the rates that changed need to be put, in any order. The
+ * first lookup against a version precomputes its full cross-rate matrix, so lookups are then just two array reads.
+ *
+ * Tables are meant to be populated and then shared; they are not safe to modify while other threads read them.
+ */
+public class ExchangeRateTable implements ExchangeRateProvider {
+
+  private final Currency base;
+  private final MathContext precision;
+  private final TreeMap<CalendarDate, Version> versions = new TreeMap<CalendarDate, Version>();
+
+  public ExchangeRateTable(Currency base) {
+    this(base, MathContext.DECIMAL128);
+  }
+
+  /** @param precision used when dividing quotes to derive cross rates */
+  public ExchangeRateTable(Currency base, MathContext precision) {
+    this.base = base;
+    this.precision = precision;
+  }
+
+  public Currency getBase() {
+    return base;
+  }
+
+  /**
+   * Sets how many units of {@code currency} one unit of the base currency buys from {@code effective} on.
+   *
+   * @return this table, for chaining
+   */
+  public ExchangeRateTable put(CalendarDate effective, Currency currency, BigDecimal unitsPerBase) {
+    if (unitsPerBase.signum() <= 0) {
+      throw new IllegalArgumentException("Rate for " + currency + " must be positive: " + unitsPerBase);
+    }
+    Version version = versions.get(effective);
+    if (version == null) {
+      Map.Entry<CalendarDate, Version> previous = versions.lowerEntry(effective);
+      version = previous == null ? new Version(base) : new Version(previous.getValue());
+      versions.put(effective, version);
+    }
+    version.put(currency, unitsPerBase);
+    // carry the rate forward until a later version that puts its own
+    for (Version later : versions.tailMap(effective, false).values()) {
+      if (!later.inherit(currency, unitsPerBase)) {
+        break;
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public BigDecimal rate(Currency from, Currency to, CalendarDate date) {
+    if (from.equals(to)) {
+      return BigDecimal.ONE;
+    }
+    Map.Entry<CalendarDate, Version> entry = versions.floorEntry(date);
+    BigDecimal rate = entry == null ? null : entry.getValue().crossRate(from, to, precision);
+    if (rate == null) {
+      throw new IllegalArgumentException("No rate from " + from + " to " + to + " on " + date);
+    }
+    return rate;
+  }
+
+  /** The quotes in effect from one date, indexed by currency ordinal. */
+  private static class Version {
+    private final BigDecimal[] unitsPerBase;
+    // whether each rate was put on this version, rather than carried forward from an earlier one
+    private final boolean[] own;
+    private volatile CrossRates crossRates;
+
+    private Version(Currency base) {
+      unitsPerBase = new BigDecimal[Currencies.count()];
+      own = new boolean[unitsPerBase.length];
+      unitsPerBase[Currencies.ordinal(base)] = BigDecimal.ONE;
+    }
+
+    private Version(Version previous) {
+      unitsPerBase = previous.unitsPerBase.clone();
+      own = new boolean[unitsPerBase.length];
+    }
+
+    private void put(Currency currency, BigDecimal rate) {
+      int ordinal = Currencies.ordinal(currency);
+      unitsPerBase[ordinal] = rate;
+      own[ordinal] = true;
+      crossRates = null;
+    }
+
+    /** @return false, changing nothing, if this version puts its own rate for {@code currency} */
+    private boolean inherit(Currency currency, BigDecimal rate) {
+      int ordinal = Currencies.ordinal(currency);
+      if (own[ordinal]) {
+        return false;
+      }
+      unitsPerBase[ordinal] = rate;
+      crossRates = null;
+      return true;
+    }
+
+    private BigDecimal crossRate(Currency from, Currency to, MathContext precision) {
+      CrossRates rates = crossRates;
+      if (rates == null) {
+        rates = new CrossRates(unitsPerBase, precision);
+        crossRates = rates;
+      }
+      return rates.get(Currencies.ordinal(from), Currencies.ordinal(to));
+    }
+  }
+
+  /** A dense matrix of rates between just the currencies that have quotes. */
+  private static class CrossRates {
+    private final int[] slots;
+    private final BigDecimal[][] matrix;
+
+    private CrossRates(BigDecimal[] unitsPerBase, MathContext precision) {
+      slots = new int[unitsPerBase.length];
+      Arrays.fill(slots, -1);
+      int quoted = 0;
+      for (int ordinal = 0; ordinal < unitsPerBase.length; ordinal++) {
+        if (unitsPerBase[ordinal] != null) {
+          slots[ordinal] = quoted++;
+        }
+      }
+      matrix = new BigDecimal[quoted][quoted];
+      for (int from = 0; from < unitsPerBase.length; from++) {
+        if (slots[from] < 0) {
+          continue;
+        }
+        for (int to = 0; to < unitsPerBase.length; to++) {
+          if (slots[to] < 0) {
+            continue;
+          }
+          matrix[slots[from]][slots[to]] = from == to ? BigDecimal.ONE : unitsPerBase[to].divide(
+            unitsPerBase[from],
+            precision);
+        }
+      }
+    }
+
+    private BigDecimal get(int from, int to) {
+      int fromSlot = slots[from];
+      int toSlot = slots[to];
+      return fromSlot < 0 || toSlot < 0 ? null : matrix[fromSlot][toSlot];
+    }
+  }
+
+}
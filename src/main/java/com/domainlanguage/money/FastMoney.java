@@ -0,0 +1,173 @@
+package com.domainlanguage.money;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import com.domainlanguage.base.Ratio;
+
+/**
+ * A {@link Money} alternative that keeps the amount as a {@code long} of the currency's minor units (e.g. cents) and
+ * the currency as a small ordinal, so arithmetic does not allocate {@link BigDecimal}s.
+ *
+ * All arithmetic is exact and throws {@link ArithmeticException} on overflow rather than wrapping around.
+ */
+public class FastMoney implements Comparable<FastMoney>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final long minorUnits;
+  private final short currency;
+
+  public static FastMoney of(long minorUnits, Currency currency) {
+    return new FastMoney(minorUnits, Currencies.ordinal(currency));
+  }
+
+  public static FastMoney zero(Currency currency) {
+    return FastMoney.of(0, currency);
+  }
+
+  /** @return {@code money} as a FastMoney, or throws {@link ArithmeticException} if it's too large for a long */
+  public static FastMoney from(Money money) {
+    return FastMoney.of(MinorUnits.of(money), money.getCurrency());
+  }
+
+  private FastMoney(long minorUnits, int currency) {
+    this.minorUnits = minorUnits;
+    this.currency = (short) currency;
+  }
+
+  public Money toMoney() {
+    return MinorUnits.toMoney(minorUnits, getCurrency());
+  }
+
+  public long getMinorUnits() {
+    return minorUnits;
+  }
+
+  public Currency getCurrency() {
+    return Currencies.get(currency);
+  }
+
+  public FastMoney plus(FastMoney other) {
+    assertHasSameCurrencyAs(other);
+    return new FastMoney(Math.addExact(minorUnits, other.minorUnits), currency);
+  }
+
+  public FastMoney minus(FastMoney other) {
+    assertHasSameCurrencyAs(other);
+    return new FastMoney(Math.subtractExact(minorUnits, other.minorUnits), currency);
+  }
+
+  public FastMoney negated() {
+    return new FastMoney(Math.negateExact(minorUnits), currency);
+  }
+
+  public FastMoney abs() {
+    return minorUnits < 0 ? negated() : this;
+  }
+
+  public FastMoney times(long factor) {
+    return new FastMoney(Math.multiplyExact(minorUnits, factor), currency);
+  }
+
+  /**
+   * Multiplies by {@code ratio} in long arithmetic when the ratio's terms fit, otherwise falls back to
+   * {@link Money#applying(Ratio, int)}. Either way the result is the same.
+   */
+  public FastMoney applying(Ratio ratio, int roundingMode) {
+    Multiplier multiplier = Multiplier.of(ratio);
+    if (multiplier.isExact()) {
+      try {
+        return new FastMoney(multiplier.apply(minorUnits, roundingMode), currency);
+      } catch (ArithmeticException overflowOrRounding) {
+        // fall back to BigDecimal, which either copes or throws the appropriate exception itself
+      }
+    }
+    return FastMoney.from(toMoney().applying(ratio, roundingMode));
+  }
+
+  public boolean isZero() {
+    return minorUnits == 0;
+  }
+
+  public boolean isNegative() {
+    return minorUnits < 0;
+  }
+
+  public boolean isPositive() {
+    return minorUnits > 0;
+  }
+
+  public boolean isGreaterThan(FastMoney other) {
+    return compareTo(other) > 0;
+  }
+
+  public boolean isLessThan(FastMoney other) {
+    return compareTo(other) < 0;
+  }
+
+  @Override
+  public int compareTo(FastMoney other) {
+    if (!hasSameCurrencyAs(other)) {
+      throw new IllegalArgumentException("Compare is not defined between different currencies");
+    }
+    return Long.compare(minorUnits, other.minorUnits);
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (object instanceof FastMoney) {
+      FastMoney other = (FastMoney) object;
+      return currency == other.currency && minorUnits == other.minorUnits;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(minorUnits) * 31 + currency;
+  }
+
+  @Override
+  public String toString() {
+    return toMoney().toString();
+  }
+
+  boolean hasSameCurrencyAs(FastMoney other) {
+    return currency == other.currency;
+  }
+
+  private void assertHasSameCurrencyAs(FastMoney other) {
+    if (!hasSameCurrencyAs(other)) {
+      throw new IllegalArgumentException(other.toString() + " is not same currency as " + toString());
+    }
+  }
+
+  // The currency ordinal is only stable within a JVM, so serialize the ISO code instead
+  private Object writeReplace() {
+    return new SerializedForm(minorUnits, getCurrency().getCurrencyCode());
+  }
+
+  private void readObject(ObjectInputStream in) throws InvalidObjectException {
+    throw new InvalidObjectException("Serialized form required");
+  }
+
+  private static class SerializedForm implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final long minorUnits;
+    private final String currencyCode;
+
+    private SerializedForm(long minorUnits, String currencyCode) {
+      this.minorUnits = minorUnits;
+      this.currencyCode = currencyCode;
+    }
+
+    private Object readResolve() {
+      return FastMoney.of(minorUnits, Currency.getInstance(currencyCode));
+    }
+  }
+
+}
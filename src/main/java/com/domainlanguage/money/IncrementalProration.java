@@ -0,0 +1,100 @@
+package com.domainlanguage.money;
+
+import java.util.Currency;
+
+/**
+ * A proration of a total over weights that change one at a time, e.g. a live cost allocation. The weights are kept in
+ * a Fenwick tree of prefix sums, so changing one costs O(log n), and so does reading any part, which is computed on
+ * demand from the two cumulative shares around it, as in {@link StreamingProration}: part i is
+ * {@code total * (w1 + ... + wi) / sum - total * (w1 + ... + wi-1) / sum}, each rounded toward zero. So the parts are
+ * always within one minor unit of their exact shares and sum to exactly the total, with nothing recomputed for the
+ * parts that aren't read. Weights must not be negative. Not thread safe.
+ */
+public class IncrementalProration {
+
+  private final Currency currency;
+  private long total;
+  private final long[] weights;
+  private final long[] tree;
+  private long weightSum;
+
+  public IncrementalProration(Money total, long[] weights) {
+    this.currency = total.getCurrency();
+    this.total = MinorUnits.of(total);
+    this.weights = new long[weights.length];
+    this.tree = new long[weights.length + 1];
+    for (int i = 0; i < weights.length; i++) {
+      setWeight(i, weights[i]);
+    }
+  }
+
+  public int size() {
+    return weights.length;
+  }
+
+  public Money getTotal() {
+    return MinorUnits.toMoney(total, currency);
+  }
+
+  /** Changes the total; the parts follow on their next read. */
+  public void setTotal(Money total) {
+    MoneySummation.assertCurrency(total, currency);
+    this.total = MinorUnits.of(total);
+  }
+
+  public long getWeight(int index) {
+    return weights[index];
+  }
+
+  public void setWeight(int index, long weight) {
+    if (weight < 0) {
+      throw new IllegalArgumentException("Negative weight " + weight);
+    }
+    long delta = weight - weights[index];
+    weightSum = Math.addExact(weightSum, delta);
+    weights[index] = weight;
+    for (int i = index + 1; i < tree.length; i += i & -i) {
+      tree[i] += delta;
+    }
+  }
+
+  /** @return the current part at {@code index} */
+  public Money get(int index) {
+    if (index < 0 || index >= weights.length) {
+      throw new IndexOutOfBoundsException("Index " + index + " of " + weights.length + " parts");
+    }
+    long before = prefixSum(index);
+    return MinorUnits.toMoney(cumulativeShare(before + weights[index]) - cumulativeShare(before), currency);
+  }
+
+  /** @return all the current parts, in one O(n) pass */
+  public Money[] toArray() {
+    Money[] results = new Money[weights.length];
+    long cumulative = 0;
+    long allocated = 0;
+    for (int i = 0; i < results.length; i++) {
+      cumulative += weights[i];
+      long target = cumulativeShare(cumulative);
+      results[i] = MinorUnits.toMoney(target - allocated, currency);
+      allocated = target;
+    }
+    return results;
+  }
+
+  private long cumulativeShare(long cumulativeWeight) {
+    if (weightSum == 0) {
+      throw new ArithmeticException("Weights sum to zero");
+    }
+    return MinorUnits.multiplyDivide(total, cumulativeWeight, weightSum);
+  }
+
+  /** @return the sum of the weights before {@code index} */
+  private long prefixSum(int index) {
+    long sum = 0;
+    for (int i = index; i > 0; i -= i & -i) {
+      sum += tree[i];
+    }
+    return sum;
+  }
+
+}
@@ -0,0 +1,129 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Currency;
+
+import com.domainlanguage.base.Rounding;
+
+/** Helpers for working with amounts as a {@code long} count of a currency's minor units, e.g. cents. */
+final class MinorUnits {
+
+  private static final long[] POWERS_OF_TEN = new long[19];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  /** @return the amount of {@code money} in minor units, or throws {@link ArithmeticException} if it won't fit */
+  static long of(Money money) {
+    return MinorUnits.of(money.getAmount());
+  }
+
+  static long of(BigDecimal amount) {
+    if (amount.scale() == 0 && amount.precision() <= 18) {
+      return amount.longValue();
+    }
+    BigInteger unscaled = amount.unscaledValue();
+    if (unscaled.bitLength() > 63) {
+      throw new ArithmeticException(amount + " does not fit in a long of minor units");
+    }
+    return unscaled.longValue();
+  }
+
+  static boolean fits(BigDecimal amount) {
+    return amount.precision() <= 18 || amount.unscaledValue().bitLength() <= 63;
+  }
+
+  static Money toMoney(long minorUnits, Currency currency) {
+    return MoneyInterner.valueOf(minorUnits, currency);
+  }
+
+  static Money toMoney(BigInteger minorUnits, Currency currency) {
+    if (minorUnits.bitLength() <= 63) {
+      return MinorUnits.toMoney(minorUnits.longValue(), currency);
+    }
+    return new Money(new BigDecimal(minorUnits, currency.getDefaultFractionDigits()), currency);
+  }
+
+  /** @return 10 to the {@code exponent}, or throws {@link ArithmeticException} if it won't fit in a long */
+  static long pow10(int exponent) {
+    if (exponent < 0 || exponent >= POWERS_OF_TEN.length) {
+      throw new ArithmeticException("10^" + exponent + " does not fit in a long");
+    }
+    return POWERS_OF_TEN[exponent];
+  }
+
+  /** @return {@code dividend / divisor} rounded per the {@link Rounding} mode, without going through BigDecimal */
+  static long divide(long dividend, long divisor, int roundingMode) {
+    if (dividend == Long.MIN_VALUE && divisor == -1) {
+      throw new ArithmeticException("long overflow");
+    }
+    long quotient = dividend / divisor;
+    long remainder = dividend % divisor;
+    if (remainder == 0) {
+      return quotient;
+    }
+    int signum = (dividend ^ divisor) < 0 ? -1 : 1;
+    boolean awayFromZero;
+    switch (roundingMode) {
+    case Rounding.UP:
+      awayFromZero = true;
+      break;
+    case Rounding.DOWN:
+      awayFromZero = false;
+      break;
+    case Rounding.CEILING:
+      awayFromZero = signum > 0;
+      break;
+    case Rounding.FLOOR:
+      awayFromZero = signum < 0;
+      break;
+    case Rounding.HALF_UP:
+    case Rounding.HALF_DOWN:
+    case Rounding.HALF_EVEN:
+      // compare |remainder| against half of |divisor| without overflowing, even for Long.MIN_VALUE
+      long absRemainder = Math.abs(remainder);
+      int half = Long.compareUnsigned(absRemainder, Math.abs(divisor) - absRemainder);
+      if (roundingMode == Rounding.HALF_UP) {
+        awayFromZero = half >= 0;
+      } else if (roundingMode == Rounding.HALF_DOWN) {
+        awayFromZero = half > 0;
+      } else {
+        awayFromZero = half > 0 || (half == 0 && (quotient & 1) != 0);
+      }
+      break;
+    case Rounding.UNNECESSARY:
+      throw new ArithmeticException("Rounding necessary");
+    default:
+      throw new IllegalArgumentException("Invalid rounding mode: " + roundingMode);
+    }
+    return awayFromZero ? quotient + signum : quotient;
+  }
+
+  /** @return {@code a * b / c} rounded toward zero, going through BigInteger only if the product overflows */
+  static long multiplyDivide(long a, long b, long c) {
+    long limit = a == 0 ? Long.MAX_VALUE : Long.MAX_VALUE / Math.abs(a);
+    if (b <= limit && b >= -limit) {
+      return a * b / c;
+    }
+    return BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).divide(BigInteger.valueOf(c)).longValueExact();
+  }
+
+  /** @return the greatest common divisor of {@code a} and {@code b}, which is negative only for Long.MIN_VALUE */
+  static long gcd(long a, long b) {
+    while (b != 0) {
+      long remainder = a % b;
+      a = b;
+      b = remainder;
+    }
+    return Math.abs(a);
+  }
+
+  private MinorUnits() {
+  }
+
+}
@@ -6,11 +6,16 @@
 
 package com.domainlanguage.money;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.*;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collector;
 
 import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rational;
 import com.domainlanguage.base.Rounding;
 import com.domainlanguage.time.Duration;
 
@@ -29,7 +34,31 @@ public class Money implements Comparable<Money>, Serializable {
    */
   public static Money valueOf(BigDecimal rawAmount, Currency currency, int roundingMode) {
     BigDecimal amount = rawAmount.setScale(currency.getDefaultFractionDigits(), roundingMode);
-    return new Money(amount, currency);
+    return MoneyInterner.valueOf(amount, currency);
+  }
+
+  /** @return {@code rawAmount} rounded per {@code policy}, which may round to more than the currency's minor unit */
+  public static Money valueOf(BigDecimal rawAmount, Currency currency, RoundingPolicy policy) {
+    return MoneyInterner.valueOf(policy.round(rawAmount, currency), currency);
+  }
+
+  /** @return the amount of {@code minorUnits}, e.g. 1234 cents for $12.34 */
+  public static Money ofMinorUnits(long minorUnits, Currency currency) {
+    return MinorUnits.toMoney(minorUnits, currency);
+  }
+
+  /** @return the exact amount {@code minorUnits} rounded per {@code policy}, in longs if it fits */
+  static Money valueOf(Rational minorUnits, Currency currency, RoundingPolicy policy) {
+    if (minorUnits.fitsInLongs()) {
+      try {
+        return MinorUnits.toMoney(
+          policy.divide(minorUnits.longNumerator(), minorUnits.longDenominator(), currency),
+          currency);
+      } catch (ArithmeticException overflowOrRounding) {
+        // redo it in BigIntegers, which rethrows any rounding error
+      }
+    }
+    return MinorUnits.toMoney(policy.divide(minorUnits.getNumerator(), minorUnits.getDenominator(), currency), currency);
   }
 
   /**
@@ -86,23 +115,66 @@ public class Money implements Comparable<Money>, Serializable {
   public static Money sum(Collection<Money> monies) {
     // TODO Return Default Currency
     if (monies.isEmpty()) {
-      return Money.dollars(0.00);
+      return CurrencyContext.of(Money.USD).getZero();
     }
-    Iterator<Money> iterator = monies.iterator();
-    Money sum = iterator.next();
-    while (iterator.hasNext()) {
-      Money each = iterator.next();
-      sum = sum.plus(each);
+    return monies.stream().collect(Money.summing(monies.iterator().next().getCurrency()));
+  }
+
+  /**
+   * Sums very large arrays by splitting them across the common fork-join pool, accumulating in long minor units.
+   */
+  public static Money parallelSum(Money[] monies) {
+    return MoneySummation.parallelSum(monies);
+  }
+
+  /**
+   * @return a collector that sums monies of {@code currency} in long minor units, only falling back to BigInteger on
+   *         overflow, and returns zero for an empty stream
+   */
+  public static Collector<Money, ?, Money> summing(Currency currency) {
+    return MoneySummation.summing(currency);
+  }
+
+  /** @return a {@link Collector.Characteristics#CONCURRENT} version of {@link #summing(Currency)} */
+  public static Collector<Money, ?, Money> summingConcurrently(Currency currency) {
+    return MoneySummation.summingConcurrently(currency);
+  }
+
+  /**
+   * As {@link #applying(Ratio, int)} on each of {@code monies}, but with the ratio reduced to a long multiplier once, so
+   * each amount that fits a long of minor units costs one multiply and one divide; the others go through BigDecimal.
+   */
+  public static Money[] applying(Money[] monies, Ratio ratio, int roundingRule) {
+    return Money.applying(monies, Multiplier.of(ratio), m -> m.applying(ratio, roundingRule), roundingRule);
+  }
+
+  /** As {@link #times(BigDecimal, int)} on each of {@code monies}, in longs as {@link #applying(Money[], Ratio, int)}. */
+  public static Money[] times(Money[] monies, BigDecimal factor, int roundingMode) {
+    return Money.applying(monies, Multiplier.of(factor), m -> m.times(factor, roundingMode), roundingMode);
+  }
+
+  private static Money[] applying(Money[] monies, Multiplier multiplier, UnaryOperator<Money> fallback, int roundingMode) {
+    Money[] results = new Money[monies.length];
+    for (int i = 0; i < monies.length; i++) {
+      BigDecimal amount = monies[i].amount;
+      if (multiplier.isExact() && MinorUnits.fits(amount)) {
+        try {
+          results[i] = MinorUnits.toMoney(multiplier.apply(MinorUnits.of(amount), roundingMode), monies[i].currency);
+          continue;
+        } catch (ArithmeticException overflowOrRounding) {
+          // fall back to BigDecimal, which either copes or throws the appropriate exception itself
+        }
+      }
+      results[i] = fallback.apply(monies[i]);
     }
-    return sum;
+    return results;
   }
 
   /**
    * Return the max of <code>a</code> or <code>0</code>
    */
   public static Money notBelowZero(Money a) {
-    Money zero = Money.valueOf(0.00, a.getCurrency());
-    return Money.max(zero, a);
+    return a.isNegative() ? CurrencyContext.of(a.getCurrency()).getZero() : a;
   }
 
   /**
@@ -131,15 +203,11 @@ public class Money implements Comparable<Money>, Serializable {
    * Return the sum of <code>money</code>
    */
   public static Money sum(List<Money> money) {
-    Money total = Money.dollars(0.00);
-    for (Iterator<Money> i = money.iterator(); i.hasNext();) {
-      total = total.plus(i.next());
-    }
-    return total;
+    return money.stream().collect(Money.summing(Money.USD));
   }
 
   public static Money zeroIfNull(Money money) {
-    return money == null ? Money.dollars(0.00) : money;
+    return money == null ? CurrencyContext.of(Money.USD).getZero() : money;
   }
 
   /**
@@ -163,7 +231,7 @@ public class Money implements Comparable<Money>, Serializable {
   }
 
   public boolean isNegative() {
-    return amount.compareTo(new BigDecimal(0)) < 0;
+    return amount.signum() < 0;
   }
 
   public boolean isNotNegative() {
@@ -171,7 +239,7 @@ public class Money implements Comparable<Money>, Serializable {
   }
 
   public boolean isPositive() {
-    return amount.compareTo(new BigDecimal(0)) > 0;
+    return amount.signum() > 0;
   }
 
   public boolean isNotPositive() {
@@ -179,7 +247,7 @@ public class Money implements Comparable<Money>, Serializable {
   }
 
   public boolean isZero() {
-    return equals(Money.valueOf(0.0, currency));
+    return amount.signum() == 0;
   }
 
   public boolean isNotZero() {
@@ -200,6 +268,10 @@ public class Money implements Comparable<Money>, Serializable {
     return Money.valueOf(newAmount, currency);
   }
 
+  public Money dividedBy(BigDecimal divisor, RoundingPolicy policy) {
+    return applying(Rational.of(divisor).reciprocal(), policy);
+  }
+
   public Money dividedBy(double divisor) {
     return dividedBy(divisor, Money.DEFAULT_ROUNDING_MODE);
   }
@@ -217,6 +289,11 @@ public class Money implements Comparable<Money>, Serializable {
     return applying(ratio, currency.getDefaultFractionDigits(), roundingRule);
   }
 
+  /** As {@link #applying(Ratio, int)}, but rounded per {@code policy}, in long minor units when they fit. */
+  public Money applying(Ratio ratio, RoundingPolicy policy) {
+    return applying(ratio.toRational(), policy);
+  }
+
   public Money applying(Ratio ratio, int scale, int roundingRule) {
     BigDecimal newAmount = ratio.times(amount).decimalValue(scale, roundingRule);
     return Money.valueOf(newAmount, currency);
@@ -226,7 +303,7 @@ public class Money implements Comparable<Money>, Serializable {
    * TODO: Many apps require carrying extra precision in intermediate calculations. The use of Ratio is a beginning, but
    * need a comprehensive solution. Currently, an invariant of Money is that the scale is the currencies standard scale,
    * but this will probably have to be suspended or elaborated in intermediate calcs, or handled with defered
-   * calculations like Ratio.
+   * calculations like Ratio. {@link MoneyExpression} defers the rounding of a whole formula to its evaluation.
    */
 
   public Money times(BigDecimal factor) {
@@ -240,6 +317,10 @@ public class Money implements Comparable<Money>, Serializable {
     return Money.valueOf(amount.multiply(factor), currency, roundingMode);
   }
 
+  public Money times(BigDecimal factor, RoundingPolicy policy) {
+    return applying(Rational.of(factor), policy);
+  }
+
   public Money times(double amount, int roundingMode) {
     return times(new BigDecimal(amount), roundingMode);
   }
@@ -252,6 +333,30 @@ public class Money implements Comparable<Money>, Serializable {
     return times(new BigDecimal(i));
   }
 
+  /** @return this amount rounded to the increment {@code policy} has for its currency, e.g. CHF 0.05 for cash */
+  public Money rounded(RoundingPolicy policy) {
+    if (MinorUnits.fits(amount)) {
+      try {
+        return MinorUnits.toMoney(policy.round(MinorUnits.of(amount), currency), currency);
+      } catch (ArithmeticException overflowOrRounding) {
+        // redo it in BigDecimal, which rethrows any rounding error
+      }
+    }
+    return Money.valueOf(amount, currency, policy);
+  }
+
+  private Money applying(Rational factor, RoundingPolicy policy) {
+    if (factor.fitsInLongs() && MinorUnits.fits(amount)) {
+      try {
+        long product = Math.multiplyExact(MinorUnits.of(amount), factor.longNumerator());
+        return MinorUnits.toMoney(policy.divide(product, factor.longDenominator(), currency), currency);
+      } catch (ArithmeticException overflowOrRounding) {
+        // redo it in BigIntegers, which rethrows any rounding error
+      }
+    }
+    return Money.valueOf(Rational.of(amount.unscaledValue(), BigInteger.ONE).times(factor), currency, policy);
+  }
+
   public boolean isGreaterThan(Money other) {
     return compareTo(other) > 0;
   }
@@ -292,8 +397,23 @@ public class Money implements Comparable<Money>, Serializable {
 
   @Override
   public String toString() {
-    return CurrencyUtils.getSymbol(currency)
-      + NumberUtils.format(amount.doubleValue(), currency.getDefaultFractionDigits());
+    StringBuilder buffer = new StringBuilder();
+    formatTo(buffer);
+    return buffer.toString();
+  }
+
+  /**
+   * Appends the same text as {@link #toString()}, e.g. "$1,000.00", without creating intermediate Strings. Unlike the
+   * old double-based formatting, this is exact for any amount.
+   */
+  public void formatTo(StringBuilder buffer) {
+    buffer.append(CurrencyContext.of(currency).getSymbol());
+    NumberUtils.appendTo(buffer, amount);
+  }
+
+  public void formatTo(Appendable out) throws IOException {
+    out.append(CurrencyContext.of(currency).getSymbol());
+    NumberUtils.appendTo(out, amount);
   }
 
   public String toNumericString() {
@@ -302,10 +422,13 @@ public class Money implements Comparable<Money>, Serializable {
 
   public String toString(Locale locale) {
     String symbol = currency.getSymbol(locale);
+    StringBuilder buffer = new StringBuilder();
+    buffer.append(symbol);
     if (!"$".equals(symbol)) {
-      symbol = symbol + " ";
+      buffer.append(' ');
     }
-    return symbol + NumberUtils.format(amount.doubleValue(), currency.getDefaultFractionDigits());
+    NumberUtils.appendTo(buffer, amount);
+    return buffer.toString();
   }
 
   public MoneyTimeRate per(Duration duration) {
@@ -325,9 +448,7 @@ public class Money implements Comparable<Money>, Serializable {
    * there are other cases, where the smallest increment is not the smallest unit.
    */
   Money minimumIncrement() {
-    BigDecimal one = new BigDecimal(1);
-    BigDecimal increment = one.movePointLeft(currency.getDefaultFractionDigits());
-    return Money.valueOf(increment, currency);
+    return CurrencyContext.of(currency).getMinimumIncrement();
   }
 
   Money incremented() {
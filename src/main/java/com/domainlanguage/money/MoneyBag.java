@@ -0,0 +1,151 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * A mutable, multi-currency accumulator of {@link Money}.
+ *
+ * Totals are kept as {@code long} minor units in an array indexed by a dense currency ordinal, spilling into a
+ * {@link BigInteger} per currency only on overflow. Bags are not thread safe; for parallel reduction, give each
+ * thread its own bag and {@link #merge(MoneyBag)} them, which is what {@link #collector()} does.
+ */
+public class MoneyBag {
+
+  private long[] units = new long[0];
+  private boolean[] present = new boolean[0];
+  private BigInteger[] overflow;
+
+  public static Collector<Money, ?, MoneyBag> collector() {
+    return Collector.of(MoneyBag::new, MoneyBag::add, MoneyBag::merge, Collector.Characteristics.UNORDERED);
+  }
+
+  /** @return a collector of the total for each currency, e.g. for summing a mixed-currency ledger */
+  public static Collector<Money, ?, Map<Currency, Money>> summingByCurrency() {
+    return Collector.of(
+      MoneyBag::new,
+      MoneyBag::add,
+      MoneyBag::merge,
+      MoneyBag::toMap,
+      Collector.Characteristics.UNORDERED);
+  }
+
+  public void add(Money money) {
+    int ordinal = Currencies.ordinal(money.getCurrency());
+    BigDecimal amount = money.getAmount();
+    if (MinorUnits.fits(amount)) {
+      add(ordinal, MinorUnits.of(amount));
+    } else {
+      ensureCapacity(ordinal + 1);
+      present[ordinal] = true;
+      addOverflow(ordinal, amount.unscaledValue());
+    }
+  }
+
+  public void addAll(Iterable<Money> monies) {
+    for (Money money : monies) {
+      add(money);
+    }
+  }
+
+  /** Adds everything in {@code other} to this bag. @return this bag */
+  public MoneyBag merge(MoneyBag other) {
+    ensureCapacity(other.units.length);
+    for (int ordinal = 0; ordinal < other.units.length; ordinal++) {
+      if (other.present[ordinal]) {
+        add(ordinal, other.units[ordinal]);
+        if (other.overflow != null && other.overflow[ordinal] != null) {
+          addOverflow(ordinal, other.overflow[ordinal]);
+        }
+      }
+    }
+    return this;
+  }
+
+  public boolean isEmpty() {
+    for (int ordinal = 0; ordinal < present.length; ordinal++) {
+      if (present[ordinal]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public boolean contains(Currency currency) {
+    int ordinal = Currencies.ordinal(currency);
+    return ordinal < present.length && present[ordinal];
+  }
+
+  /** @return the total in {@code currency}, which is zero if nothing in that currency was added */
+  public Money get(Currency currency) {
+    int ordinal = Currencies.ordinal(currency);
+    if (ordinal >= units.length) {
+      return MinorUnits.toMoney(0, currency);
+    }
+    return toMoney(ordinal);
+  }
+
+  /** @return an immutable snapshot of the total for each currency that has been added */
+  public Map<Currency, Money> toMap() {
+    Map<Currency, Money> snapshot = new LinkedHashMap<Currency, Money>();
+    for (int ordinal = 0; ordinal < present.length; ordinal++) {
+      if (present[ordinal]) {
+        snapshot.put(Currencies.get(ordinal), toMoney(ordinal));
+      }
+    }
+    return Collections.unmodifiableMap(snapshot);
+  }
+
+  @Override
+  public String toString() {
+    return toMap().values().toString();
+  }
+
+  private void add(int ordinal, long value) {
+    ensureCapacity(ordinal + 1);
+    present[ordinal] = true;
+    long current = units[ordinal];
+    long result = current + value;
+    if (((current ^ result) & (value ^ result)) < 0) {
+      addOverflow(ordinal, BigInteger.valueOf(current));
+      units[ordinal] = value;
+    } else {
+      units[ordinal] = result;
+    }
+  }
+
+  private void addOverflow(int ordinal, BigInteger value) {
+    if (overflow == null) {
+      overflow = new BigInteger[units.length];
+    }
+    overflow[ordinal] = overflow[ordinal] == null ? value : overflow[ordinal].add(value);
+  }
+
+  private Money toMoney(int ordinal) {
+    Currency currency = Currencies.get(ordinal);
+    if (overflow == null || overflow[ordinal] == null) {
+      return MinorUnits.toMoney(units[ordinal], currency);
+    }
+    BigInteger total = overflow[ordinal].add(BigInteger.valueOf(units[ordinal]));
+    return new Money(new BigDecimal(total, currency.getDefaultFractionDigits()), currency);
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > units.length) {
+      // double, but never past the number of known currencies
+      int newLength = Math.max(capacity, Math.min(Currencies.count(), Math.max(units.length * 2, 8)));
+      units = Arrays.copyOf(units, newLength);
+      present = Arrays.copyOf(present, newLength);
+      if (overflow != null) {
+        overflow = Arrays.copyOf(overflow, newLength);
+      }
+    }
+  }
+
+}
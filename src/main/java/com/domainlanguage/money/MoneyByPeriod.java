@@ -0,0 +1,322 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+import com.domainlanguage.time.CalendarDate;
+import com.domainlanguage.time.TimePoint;
+
+/**
+ * A mutable accumulator of {@link Money} by currency and by the calendar day or month, in a time zone, that each
+ * amount falls in, e.g. for daily or monthly totals of a transaction stream.
+ *
+ * Each time point is turned into a day count since the epoch with the zone's offset, without a java.util.Calendar or a
+ * CalendarDate, and each currency's totals are {@code long} minor units in an array indexed by the day, or month, from
+ * the earliest one seen, spilling into a {@link BigInteger} per period only on overflow. Like {@link MoneyBag}, these
+ * are not thread safe; for parallel reduction, give each thread its own and {@link #merge(MoneyByPeriod)} them, which
+ * is what {@link #collector(Supplier, Function, Function)} does.
+ */
+public class MoneyByPeriod {
+
+  private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+  private final TimeZone zone;
+  private final boolean monthly;
+  // indexed by currency ordinal
+  private Periods[] currencies = new Periods[0];
+  // the month of the last day looked up, as days from cachedFirstDay to cachedEndDay exclusive, since streams tend to
+  // be in date order
+  private long cachedFirstDay = 0;
+  private long cachedEndDay = 0;
+  private long cachedMonth;
+
+  public static MoneyByPeriod byDay(TimeZone zone) {
+    return new MoneyByPeriod(zone, false);
+  }
+
+  public static MoneyByPeriod byMonth(TimeZone zone) {
+    return new MoneyByPeriod(zone, true);
+  }
+
+  /**
+   * @return a collector of {@code amount} at {@code when} for each element, into {@code empty}, e.g.
+   *         {@code () -> MoneyByPeriod.byMonth(zone)}
+   */
+  public static <T> Collector<T, ?, MoneyByPeriod> collector(
+    Supplier<MoneyByPeriod> empty,
+    final Function<? super T, TimePoint> when,
+    final Function<? super T, Money> amount) {
+    return Collector.of(
+      empty,
+      (totals, element) -> totals.add(when.apply(element), amount.apply(element)),
+      MoneyByPeriod::merge,
+      Collector.Characteristics.UNORDERED);
+  }
+
+  private MoneyByPeriod(TimeZone zone, boolean monthly) {
+    this.zone = zone;
+    this.monthly = monthly;
+  }
+
+  public TimeZone getZone() {
+    return zone;
+  }
+
+  public boolean isMonthly() {
+    return monthly;
+  }
+
+  public void add(TimePoint when, Money amount) {
+    long millis = when.getTime();
+    add(Math.floorDiv(millis + zone.getOffset(millis), MoneyByPeriod.MILLIS_PER_DAY), amount);
+  }
+
+  public void add(CalendarDate date, Money amount) {
+    add(date.toEpochDay(), amount);
+  }
+
+  /** Adds everything in {@code other}, which must be by the same periods in the same zone, to this. @return this */
+  public MoneyByPeriod merge(MoneyByPeriod other) {
+    if (monthly != other.monthly || !zone.equals(other.zone)) {
+      throw new IllegalArgumentException("Cannot merge totals by different periods");
+    }
+    for (int ordinal = 0; ordinal < other.currencies.length; ordinal++) {
+      if (other.currencies[ordinal] != null) {
+        periods(ordinal).addAll(other.currencies[ordinal]);
+      }
+    }
+    return this;
+  }
+
+  public Set<Currency> currencies() {
+    Set<Currency> result = new LinkedHashSet<Currency>();
+    for (int ordinal = 0; ordinal < currencies.length; ordinal++) {
+      if (currencies[ordinal] != null) {
+        result.add(Currencies.get(ordinal));
+      }
+    }
+    return Collections.unmodifiableSet(result);
+  }
+
+  /** @return the total in {@code currency} for the day or month of {@code date}, which is zero if nothing was added */
+  public Money get(Currency currency, CalendarDate date) {
+    Periods periods = periods(currency);
+    return periods == null ? MinorUnits.toMoney(0, currency) : periods.get(period(date.toEpochDay()), currency);
+  }
+
+  /**
+   * @return the total in {@code currency} for each period anything was added in, in date order, keyed by the day, or
+   *         the first day of the month
+   */
+  public Map<CalendarDate, Money> toMap(Currency currency) {
+    Map<CalendarDate, Money> result = new LinkedHashMap<CalendarDate, Money>();
+    Periods periods = periods(currency);
+    if (periods != null) {
+      for (int index = periods.low; index <= periods.high; index++) {
+        if (periods.touched[index]) {
+          result.put(date(periods.origin + index), periods.get(periods.origin + index, currency));
+        }
+      }
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  /** @return the day, or the first day of the month, of the first row of {@link #toColumn(Currency)}, or null */
+  public CalendarDate getFirstPeriod(Currency currency) {
+    Periods periods = periods(currency);
+    return periods == null ? null : date(periods.origin + periods.low);
+  }
+
+  /**
+   * @return a column of the total in {@code currency} for every period from {@link #getFirstPeriod(Currency)} to the
+   *         last one anything was added in, including zeros for those in between
+   */
+  public MoneyColumn toColumn(Currency currency) {
+    Periods periods = periods(currency);
+    if (periods == null) {
+      return new MoneyColumn(currency);
+    }
+    MoneyColumn column = new MoneyColumn(currency, periods.high - periods.low + 1);
+    for (int index = periods.low; index <= periods.high; index++) {
+      if (periods.spilled != null && periods.spilled[index] != null) {
+        column.add(periods.get(periods.origin + index, currency));
+      } else {
+        column.add(periods.sums[index]);
+      }
+    }
+    return column;
+  }
+
+  @Override
+  public String toString() {
+    Map<Currency, Map<CalendarDate, Money>> all = new LinkedHashMap<Currency, Map<CalendarDate, Money>>();
+    for (Currency currency : currencies()) {
+      all.put(currency, toMap(currency));
+    }
+    return all.toString();
+  }
+
+  private void add(long epochDay, Money amount) {
+    long period = period(epochDay);
+    Periods periods = periods(Currencies.ordinal(amount.getCurrency()));
+    BigDecimal value = amount.getAmount();
+    if (MinorUnits.fits(value)) {
+      periods.add(period, MinorUnits.of(value));
+    } else {
+      periods.add(period, value.unscaledValue());
+    }
+  }
+
+  /** @return {@code epochDay}, or the month it falls in, counted from January of year 0 */
+  private long period(long epochDay) {
+    if (!monthly) {
+      return epochDay;
+    }
+    if (epochDay < cachedFirstDay || epochDay >= cachedEndDay) {
+      CalendarDate date = CalendarDate.fromEpochDay(epochDay);
+      CalendarDate next = date.getMonth() == 12
+        ? CalendarDate.from(date.getYear() + 1, 1, 1)
+        : CalendarDate.from(date.getYear(), date.getMonth() + 1, 1);
+      cachedFirstDay = epochDay - date.getDay() + 1;
+      cachedEndDay = next.toEpochDay();
+      cachedMonth = date.getYear() * 12L + date.getMonth() - 1;
+    }
+    return cachedMonth;
+  }
+
+  private CalendarDate date(long period) {
+    if (!monthly) {
+      return CalendarDate.fromEpochDay(period);
+    }
+    return CalendarDate.from((int) Math.floorDiv(period, 12), (int) Math.floorMod(period, 12) + 1, 1);
+  }
+
+  private Periods periods(Currency currency) {
+    int ordinal = Currencies.ordinal(currency);
+    return ordinal < currencies.length ? currencies[ordinal] : null;
+  }
+
+  private Periods periods(int ordinal) {
+    if (ordinal >= currencies.length) {
+      currencies = Arrays.copyOf(currencies, Math.max(ordinal + 1, Math.min(Currencies.count(), 8)));
+    }
+    if (currencies[ordinal] == null) {
+      currencies[ordinal] = new Periods();
+    }
+    return currencies[ordinal];
+  }
+
+  /** One currency's totals, indexed by period from {@code origin}, grown at either end as periods are added. */
+  private static class Periods {
+    long origin;
+    long[] sums = new long[0];
+    boolean[] touched = new boolean[0];
+    BigInteger[] spilled;
+    // the range of indices that have been touched
+    int low = Integer.MAX_VALUE;
+    int high = -1;
+
+    void add(long period, long value) {
+      int index = index(period);
+      long current = sums[index];
+      long result = current + value;
+      if (((current ^ result) & (value ^ result)) < 0) {
+        spill(index, BigInteger.valueOf(current));
+        sums[index] = value;
+      } else {
+        sums[index] = result;
+      }
+    }
+
+    void add(long period, BigInteger value) {
+      spill(index(period), value);
+    }
+
+    void addAll(Periods other) {
+      for (int index = other.low; index <= other.high; index++) {
+        if (other.touched[index]) {
+          add(other.origin + index, other.sums[index]);
+          if (other.spilled != null && other.spilled[index] != null) {
+            add(other.origin + index, other.spilled[index]);
+          }
+        }
+      }
+    }
+
+    Money get(long period, Currency currency) {
+      long index = period - origin;
+      if (index < low || index > high) {
+        return MinorUnits.toMoney(0, currency);
+      }
+      int i = (int) index;
+      if (spilled == null || spilled[i] == null) {
+        return MinorUnits.toMoney(sums[i], currency);
+      }
+      return MinorUnits.toMoney(spilled[i].add(BigInteger.valueOf(sums[i])), currency);
+    }
+
+    private void spill(int index, BigInteger value) {
+      if (spilled == null) {
+        spilled = new BigInteger[sums.length];
+      }
+      spilled[index] = spilled[index] == null ? value : spilled[index].add(value);
+    }
+
+    private int index(long period) {
+      if (high < 0) {
+        origin = period - 8;
+        grow(0, 32);
+      }
+      long index = period - origin;
+      if (index < 0 || index >= sums.length) {
+        long first = Math.min(origin, period);
+        long needed = Math.max(origin + sums.length, period + 1) - first;
+        if (needed > Integer.MAX_VALUE - 64) {
+          throw new IllegalArgumentException("Periods span too far to total: " + needed);
+        }
+        // double, leaving the room at whichever end was overrun
+        int length = (int) Math.min(Integer.MAX_VALUE - 64, Math.max(needed, 2L * sums.length));
+        int shift = index < 0 ? (int) (origin - period) + (length - (int) needed) : 0;
+        grow(shift, length);
+        index = period - origin;
+      }
+      int i = (int) index;
+      touched[i] = true;
+      low = Math.min(low, i);
+      high = Math.max(high, i);
+      return i;
+    }
+
+    /** Moves the totals {@code shift} places up into arrays of {@code length}. */
+    private void grow(int shift, int length) {
+      long[] newSums = new long[length];
+      boolean[] newTouched = new boolean[length];
+      System.arraycopy(sums, 0, newSums, shift, sums.length);
+      System.arraycopy(touched, 0, newTouched, shift, touched.length);
+      if (spilled != null) {
+        BigInteger[] newSpilled = new BigInteger[length];
+        System.arraycopy(spilled, 0, newSpilled, shift, spilled.length);
+        spilled = newSpilled;
+      }
+      sums = newSums;
+      touched = newTouched;
+      origin -= shift;
+      if (high >= 0) {
+        low += shift;
+        high += shift;
+      }
+    }
+  }
+
+}
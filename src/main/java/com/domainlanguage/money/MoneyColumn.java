@@ -0,0 +1,293 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.function.IntPredicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collector;
+
+import com.domainlanguage.base.Ratio;
+
+/**
+ * A growable column of amounts in a single currency, stored as a {@code long[]} of minor units so that aggregates
+ * run in tight loops without allocating a {@link Money} per row.
+ *
+ * Amounts too large for a long are kept in a separate, lazily allocated {@link BigInteger} lane, so the column is
+ * always exact.
+ */
+public class MoneyColumn {
+
+  private final Currency currency;
+  private long[] units;
+  // non-null entries take precedence over units[i], which is left as 0
+  private BigInteger[] overflow;
+  private int size;
+
+  public static Collector<Money, ?, MoneyColumn> collector(final Currency currency) {
+    return Collector.of(() -> new MoneyColumn(currency), MoneyColumn::add, (a, b) -> {
+      a.addAll(b);
+      return a;
+    });
+  }
+
+  public MoneyColumn(Currency currency) {
+    this(currency, 16);
+  }
+
+  public MoneyColumn(Currency currency, int initialCapacity) {
+    this.currency = currency;
+    units = new long[Math.max(initialCapacity, 1)];
+  }
+
+  public void add(Money money) {
+    assertHasSameCurrencyAs(money);
+    BigDecimal amount = money.getAmount();
+    if (MinorUnits.fits(amount)) {
+      add(MinorUnits.of(amount));
+    } else {
+      ensureCapacity(size + 1);
+      if (overflow == null) {
+        overflow = new BigInteger[units.length];
+      }
+      overflow[size++] = amount.unscaledValue();
+    }
+  }
+
+  public void add(long minorUnits) {
+    ensureCapacity(size + 1);
+    units[size++] = minorUnits;
+  }
+
+  public void addAll(MoneyColumn other) {
+    if (!currency.equals(other.currency)) {
+      throw new IllegalArgumentException(other.currency + " is not same currency as " + currency);
+    }
+    ensureCapacity(size + other.size);
+    System.arraycopy(other.units, 0, units, size, other.size);
+    if (other.overflow != null) {
+      if (overflow == null) {
+        overflow = new BigInteger[units.length];
+      }
+      System.arraycopy(other.overflow, 0, overflow, size, other.size);
+    }
+    size += other.size;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public Currency getCurrency() {
+    return currency;
+  }
+
+  public Money get(int index) {
+    assertIndex(index);
+    if (isOverflow(index)) {
+      return new Money(new BigDecimal(overflow[index], currency.getDefaultFractionDigits()), currency);
+    }
+    return MinorUnits.toMoney(units[index], currency);
+  }
+
+  /** @return whether the amount at {@code index} is held as a long, for {@link #minorUnits(int)} */
+  boolean fitsInLong(int index) {
+    assertIndex(index);
+    return !isOverflow(index);
+  }
+
+  long minorUnits(int index) {
+    return units[index];
+  }
+
+  public Money sum() {
+    UnitsAccumulator sum = new UnitsAccumulator();
+    if (overflow == null) {
+      for (int i = 0; i < size; i++) {
+        sum.add(units[i]);
+      }
+    } else {
+      for (int i = 0; i < size; i++) {
+        addTo(sum, i);
+      }
+    }
+    return sum.toMoney(currency);
+  }
+
+  /** @return the sum of the rows whose index matches {@code rows} */
+  public Money sum(IntPredicate rows) {
+    UnitsAccumulator sum = new UnitsAccumulator();
+    for (int i = 0; i < size; i++) {
+      if (rows.test(i)) {
+        addTo(sum, i);
+      }
+    }
+    return sum.toMoney(currency);
+  }
+
+  /**
+   * @param groups the group, from 0 to {@code groupCount - 1}, of each row
+   * @return the sum of each group, with groups that have no rows summing to zero
+   */
+  public Money[] sumByGroup(int[] groups, int groupCount) {
+    if (groups.length < size) {
+      throw new IllegalArgumentException("Expected a group for each of the " + size + " rows");
+    }
+    long[] sums = new long[groupCount];
+    UnitsAccumulator[] spilled = null;
+    for (int i = 0; i < size; i++) {
+      int group = groups[i];
+      long value = units[i];
+      long result = sums[group] + value;
+      if (isOverflow(i) || ((sums[group] ^ result) & (value ^ result)) < 0) {
+        if (spilled == null) {
+          spilled = new UnitsAccumulator[groupCount];
+        }
+        if (spilled[group] == null) {
+          spilled[group] = new UnitsAccumulator();
+        }
+        addTo(spilled[group], i);
+      } else {
+        sums[group] = result;
+      }
+    }
+    Money[] result = new Money[groupCount];
+    for (int group = 0; group < groupCount; group++) {
+      if (spilled != null && spilled[group] != null) {
+        spilled[group].add(sums[group]);
+        result[group] = spilled[group].toMoney(currency);
+      } else {
+        result[group] = MinorUnits.toMoney(sums[group], currency);
+      }
+    }
+    return result;
+  }
+
+  public Money min() {
+    return get(indexOfExtreme(-1));
+  }
+
+  public Money max() {
+    return get(indexOfExtreme(1));
+  }
+
+  public Money mean(int roundingMode) {
+    assertNotEmpty();
+    UnitsAccumulator sum = new UnitsAccumulator();
+    for (int i = 0; i < size; i++) {
+      addTo(sum, i);
+    }
+    if (sum.fitsInLong()) {
+      return MinorUnits.toMoney(MinorUnits.divide(sum.longValue(), size, roundingMode), currency);
+    }
+    BigDecimal total = new BigDecimal(sum.bigIntegerValue(), currency.getDefaultFractionDigits());
+    return Money.valueOf(total.divide(BigDecimal.valueOf(size), roundingMode), currency);
+  }
+
+  /**
+   * @return a new column of each amount as by {@link Money#applying(Ratio, int)}, with the ratio reduced once to a long
+   *         multiplier; amounts that overflow go through BigDecimal
+   */
+  public MoneyColumn applying(Ratio ratio, int roundingRule) {
+    return applying(Multiplier.of(ratio), m -> m.applying(ratio, roundingRule), roundingRule);
+  }
+
+  /** @return a new column of each amount as by {@link Money#times(BigDecimal, int)} */
+  public MoneyColumn times(BigDecimal factor, int roundingMode) {
+    return applying(Multiplier.of(factor), m -> m.times(factor, roundingMode), roundingMode);
+  }
+
+  private MoneyColumn applying(Multiplier multiplier, UnaryOperator<Money> fallback, int roundingMode) {
+    MoneyColumn result = new MoneyColumn(currency, size);
+    for (int i = 0; i < size; i++) {
+      if (multiplier.isExact() && !isOverflow(i)) {
+        try {
+          result.add(multiplier.apply(units[i], roundingMode));
+          continue;
+        } catch (ArithmeticException overflowOrRounding) {
+          // fall back to BigDecimal, which either copes or throws the appropriate exception itself
+        }
+      }
+      result.add(fallback.apply(get(i)));
+    }
+    return result;
+  }
+
+  private int indexOfExtreme(int direction) {
+    assertNotEmpty();
+    int best = 0;
+    if (overflow == null) {
+      long bestValue = units[0];
+      for (int i = 1; i < size; i++) {
+        if (Long.compare(units[i], bestValue) * direction > 0) {
+          best = i;
+          bestValue = units[i];
+        }
+      }
+    } else {
+      for (int i = 1; i < size; i++) {
+        if (compare(i, best) * direction > 0) {
+          best = i;
+        }
+      }
+    }
+    return best;
+  }
+
+  private int compare(int i, int j) {
+    if (!isOverflow(i) && !isOverflow(j)) {
+      return Long.compare(units[i], units[j]);
+    }
+    return bigIntegerAt(i).compareTo(bigIntegerAt(j));
+  }
+
+  private BigInteger bigIntegerAt(int i) {
+    return isOverflow(i) ? overflow[i] : BigInteger.valueOf(units[i]);
+  }
+
+  private void addTo(UnitsAccumulator sum, int i) {
+    if (isOverflow(i)) {
+      sum.add(overflow[i]);
+    } else {
+      sum.add(units[i]);
+    }
+  }
+
+  private boolean isOverflow(int i) {
+    return overflow != null && overflow[i] != null;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > units.length) {
+      int newLength = Math.max(capacity, units.length * 2);
+      units = Arrays.copyOf(units, newLength);
+      if (overflow != null) {
+        overflow = Arrays.copyOf(overflow, newLength);
+      }
+    }
+  }
+
+  private void assertIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+  }
+
+  private void assertNotEmpty() {
+    if (size == 0) {
+      throw new IllegalStateException("MoneyColumn is empty");
+    }
+  }
+
+  private void assertHasSameCurrencyAs(Money money) {
+    if (!currency.equals(money.getCurrency())) {
+      throw new IllegalArgumentException(money.toString() + " is not same currency as " + currency);
+    }
+  }
+
+}
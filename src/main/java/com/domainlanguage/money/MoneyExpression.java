@@ -0,0 +1,238 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Currency;
+
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rational;
+import com.domainlanguage.time.Duration;
+import com.domainlanguage.time.TimeRate;
+
+/**
+ * A formula over Money that is rounded once, when it's evaluated, rather than after every step as {@link Money#times}
+ * and friends are, e.g. a premium times a rate over a term, less a discount, plus tax. Each step is folded as it's
+ * built into a constant plus a sum of input amounts, each times a factor, all kept as exact {@link Rational}s, so
+ * chains of factors multiply out exactly and no intermediate result is ever rounded.
+ *
+ * Inputs are placeholders for amounts supplied at evaluation, so one expression can be evaluated for many rows. The
+ * first evaluation compiles the expression to integers over a common denominator, after which each row is a few long
+ * multiplications, falling back to BigInteger only for a row that overflows. Expressions are immutable.
+ */
+public class MoneyExpression {
+
+  private static final Rational[] NO_FACTORS = {};
+
+  private final Currency currency;
+  // both in minor units: the result is constant + factors[0] * input 0 + factors[1] * input 1 + ...
+  private final Rational constant;
+  private final Rational[] factors;
+  // compiled on first evaluation; a race only compiles it twice
+  private Compiled compiled;
+
+  public static MoneyExpression of(Money amount) {
+    Rational constant = Rational.of(amount.getAmount().unscaledValue(), BigInteger.ONE);
+    return new MoneyExpression(amount.getCurrency(), constant, MoneyExpression.NO_FACTORS);
+  }
+
+  /** @return the amount supplied at {@code index} of the inputs at evaluation */
+  public static MoneyExpression input(int index, Currency currency) {
+    Rational[] factors = new Rational[index + 1];
+    Arrays.fill(factors, Rational.ZERO);
+    factors[index] = Rational.ONE;
+    return new MoneyExpression(currency, Rational.ZERO, factors);
+  }
+
+  /** @return {@code rate} over {@code duration}, unrounded */
+  public static MoneyExpression over(MoneyTimeRate rate, Duration duration) {
+    Currency currency = rate.getCurrency();
+    Rational perUnit = Rational.of(rate.getRate().getQuantity().movePointRight(currency.getDefaultFractionDigits()));
+    return new MoneyExpression(currency, perUnit, MoneyExpression.NO_FACTORS)
+      .times(duration.rationalDividedBy(rate.getRate().getUnit()));
+  }
+
+  private MoneyExpression(Currency currency, Rational constant, Rational[] factors) {
+    this.currency = currency;
+    this.constant = constant;
+    this.factors = factors;
+  }
+
+  public Currency getCurrency() {
+    return currency;
+  }
+
+  public MoneyExpression plus(Money other) {
+    return plus(MoneyExpression.of(other));
+  }
+
+  public MoneyExpression plus(MoneyExpression other) {
+    if (!currency.equals(other.currency)) {
+      throw new IllegalArgumentException(other.currency + " is not same currency as " + currency);
+    }
+    Rational[] sums = Arrays.copyOf(factors, Math.max(factors.length, other.factors.length));
+    for (int i = 0; i < sums.length; i++) {
+      if (i >= factors.length) {
+        sums[i] = other.factors[i];
+      } else if (i < other.factors.length) {
+        sums[i] = factors[i].plus(other.factors[i]);
+      }
+    }
+    return new MoneyExpression(currency, constant.plus(other.constant), sums);
+  }
+
+  public MoneyExpression minus(Money other) {
+    return minus(MoneyExpression.of(other));
+  }
+
+  public MoneyExpression minus(MoneyExpression other) {
+    return plus(other.negated());
+  }
+
+  public MoneyExpression negated() {
+    return times(Rational.of(-1));
+  }
+
+  public MoneyExpression times(Rational factor) {
+    Rational[] products = new Rational[factors.length];
+    for (int i = 0; i < products.length; i++) {
+      products[i] = factors[i].times(factor);
+    }
+    return new MoneyExpression(currency, constant.times(factor), products);
+  }
+
+  public MoneyExpression times(Ratio factor) {
+    return times(factor.toRational());
+  }
+
+  public MoneyExpression times(BigDecimal factor) {
+    return times(Rational.of(factor));
+  }
+
+  public MoneyExpression times(long factor) {
+    return times(Rational.of(factor));
+  }
+
+  /** Multiplies by {@code rate} over {@code duration}, e.g. an interest rate per year over a term. */
+  public MoneyExpression times(TimeRate rate, Duration duration) {
+    return times(Rational.of(rate.getQuantity()).times(duration.rationalDividedBy(rate.getUnit())));
+  }
+
+  public MoneyExpression dividedBy(Rational divisor) {
+    return times(divisor.reciprocal());
+  }
+
+  public MoneyExpression dividedBy(BigDecimal divisor) {
+    return dividedBy(Rational.of(divisor));
+  }
+
+  public MoneyExpression dividedBy(long divisor) {
+    return dividedBy(Rational.of(divisor));
+  }
+
+  /** @return how many inputs evaluation needs */
+  public int inputCount() {
+    return factors.length;
+  }
+
+  public Money evaluate(int roundingMode) {
+    return evaluate(new Money[0], roundingMode);
+  }
+
+  public Money evaluate(int scale, int roundingMode) {
+    return evaluate(new Money[0], scale, roundingMode);
+  }
+
+  /** @return the value of this expression for {@code inputs}, rounded once to the currency's scale */
+  public Money evaluate(Money[] inputs, int roundingMode) {
+    return evaluate(inputs, currency.getDefaultFractionDigits(), roundingMode);
+  }
+
+  /**
+   * @return the value of this expression for {@code inputs}, rounded once to {@code scale}, which, as with
+   *         {@link Money#applying(Ratio, int, int)}, must then fit the currency's scale
+   */
+  public Money evaluate(Money[] inputs, int scale, int roundingMode) {
+    if (inputs.length < factors.length) {
+      throw new IllegalArgumentException("Expected " + factors.length + " inputs, not " + inputs.length);
+    }
+    Compiled compiled = this.compiled;
+    if (compiled == null) {
+      compiled = new Compiled(constant, factors);
+      this.compiled = compiled;
+    }
+    int digits = currency.getDefaultFractionDigits();
+    if (compiled.numerators != null && scale == digits) {
+      try {
+        long numerator = compiled.constant;
+        for (int i = 0; i < factors.length; i++) {
+          MoneySummation.assertCurrency(inputs[i], currency);
+          numerator = Math.addExact(numerator, Math.multiplyExact(compiled.numerators[i], MinorUnits.of(inputs[i])));
+        }
+        return MinorUnits.toMoney(MinorUnits.divide(numerator, compiled.denominator, roundingMode), currency);
+      } catch (ArithmeticException overflow) {
+        // redo the row in BigIntegers below; rounding errors are rethrown from there
+      }
+    }
+    BigInteger numerator = compiled.bigConstant;
+    for (int i = 0; i < factors.length; i++) {
+      MoneySummation.assertCurrency(inputs[i], currency);
+      numerator = numerator.add(compiled.bigNumerators[i].multiply(inputs[i].getAmount().unscaledValue()));
+    }
+    BigDecimal amount = new BigDecimal(numerator)
+      .divide(new BigDecimal(compiled.bigDenominator), scale - digits, roundingMode)
+      .movePointLeft(digits);
+    return Money.valueOf(amount, currency);
+  }
+
+  @Override
+  public String toString() {
+    StringBuffer buffer = new StringBuffer();
+    buffer.append(currency).append(' ').append(constant);
+    for (int i = 0; i < factors.length; i++) {
+      if (factors[i].signum() != 0) {
+        buffer.append(" + ").append(factors[i]).append(" * $").append(i);
+      }
+    }
+    return buffer.toString();
+  }
+
+  /** The expression's terms as integers over a common denominator, in longs if they fit. */
+  private static class Compiled {
+    final long[] numerators;
+    final long constant;
+    final long denominator;
+    final BigInteger[] bigNumerators;
+    final BigInteger bigConstant;
+    final BigInteger bigDenominator;
+
+    Compiled(Rational constant, Rational[] factors) {
+      BigInteger common = constant.getDenominator();
+      for (int i = 0; i < factors.length; i++) {
+        BigInteger denominator = factors[i].getDenominator();
+        if (!denominator.equals(common)) {
+          common = common.divide(common.gcd(denominator)).multiply(denominator);
+        }
+      }
+      bigDenominator = common;
+      bigConstant = constant.getNumerator().multiply(common.divide(constant.getDenominator()));
+      bigNumerators = new BigInteger[factors.length];
+      boolean fits = common.bitLength() <= 63 && bigConstant.bitLength() <= 63;
+      for (int i = 0; i < factors.length; i++) {
+        bigNumerators[i] = factors[i].getNumerator().multiply(common.divide(factors[i].getDenominator()));
+        fits &= bigNumerators[i].bitLength() <= 63;
+      }
+      denominator = common.longValue();
+      this.constant = bigConstant.longValue();
+      if (fits) {
+        numerators = new long[factors.length];
+        for (int i = 0; i < factors.length; i++) {
+          numerators[i] = bigNumerators[i].longValue();
+        }
+      } else {
+        numerators = null;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,145 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An optional cache that makes {@link Money}'s factories return shared instances for small, common amounts, e.g. the
+ * few thousand distinct prices and fees that dominate a ledger.
+ *
+ * Interning is off by default; {@link #enable(long, long)} turns it on for amounts between two bounds of minor units,
+ * in every currency. Each currency's slots are allocated the first time one of its amounts is interned, and are
+ * filled lock-free, so interning is thread safe. Use the hit and miss counts to tune the bounds.
+ */
+public class MoneyInterner {
+
+  /** The most slots a single currency may have, so an interner can't grow without bound. */
+  public static final int MAX_SLOTS = 1 << 20;
+
+  private static volatile MoneyInterner installed;
+
+  private final long minMinorUnits;
+  private final long maxMinorUnits;
+  private final AtomicReferenceArray<AtomicReferenceArray<Money>> slots;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder outOfRange = new LongAdder();
+
+  /** Installs a new, empty interner for amounts from {@code minMinorUnits} to {@code maxMinorUnits} inclusive. */
+  public static MoneyInterner enable(long minMinorUnits, long maxMinorUnits) {
+    MoneyInterner interner = new MoneyInterner(minMinorUnits, maxMinorUnits);
+    installed = interner;
+    return interner;
+  }
+
+  public static void disable() {
+    installed = null;
+  }
+
+  /** @return the interner in use, or null if interning is disabled */
+  public static MoneyInterner installed() {
+    return installed;
+  }
+
+  static Money valueOf(BigDecimal amount, Currency currency) {
+    MoneyInterner interner = installed;
+    return interner == null ? new Money(amount, currency) : interner.intern(amount, currency);
+  }
+
+  static Money valueOf(long minorUnits, Currency currency) {
+    MoneyInterner interner = installed;
+    if (interner == null) {
+      return new Money(BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits()), currency);
+    }
+    return interner.intern(minorUnits, currency);
+  }
+
+  private MoneyInterner(long minMinorUnits, long maxMinorUnits) {
+    long range = maxMinorUnits - minMinorUnits;
+    if (minMinorUnits > maxMinorUnits || range < 0 || range >= MAX_SLOTS) {
+      throw new IllegalArgumentException("Range must be between 1 and " + MAX_SLOTS + " minor units");
+    }
+    this.minMinorUnits = minMinorUnits;
+    this.maxMinorUnits = maxMinorUnits;
+    slots = new AtomicReferenceArray<AtomicReferenceArray<Money>>(Currencies.count());
+  }
+
+  public long getMinMinorUnits() {
+    return minMinorUnits;
+  }
+
+  public long getMaxMinorUnits() {
+    return maxMinorUnits;
+  }
+
+  /** @return how many lookups returned an already-interned instance */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /** @return how many lookups were in range but had to create, and then intern, a new instance */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /** @return how many lookups were for amounts outside of the interned range */
+  public long getOutOfRange() {
+    return outOfRange.sum();
+  }
+
+  public void resetStatistics() {
+    hits.reset();
+    misses.reset();
+    outOfRange.reset();
+  }
+
+  private Money intern(BigDecimal amount, Currency currency) {
+    long minorUnits = amount.precision() > 18 ? 0 : MinorUnits.of(amount);
+    if (amount.precision() > 18 || !isInRange(minorUnits)) {
+      outOfRange.increment();
+      return new Money(amount, currency);
+    }
+    return intern(minorUnits, amount, currency);
+  }
+
+  private Money intern(long minorUnits, Currency currency) {
+    if (!isInRange(minorUnits)) {
+      outOfRange.increment();
+      return new Money(BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits()), currency);
+    }
+    return intern(minorUnits, null, currency);
+  }
+
+  private Money intern(long minorUnits, BigDecimal amount, Currency currency) {
+    AtomicReferenceArray<Money> monies = moniesFor(currency);
+    int slot = (int) (minorUnits - minMinorUnits);
+    Money interned = monies.get(slot);
+    if (interned != null) {
+      hits.increment();
+      return interned;
+    }
+    misses.increment();
+    if (amount == null) {
+      amount = BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+    Money money = new Money(amount, currency);
+    return monies.compareAndSet(slot, null, money) ? money : monies.get(slot);
+  }
+
+  private AtomicReferenceArray<Money> moniesFor(Currency currency) {
+    int ordinal = Currencies.ordinal(currency);
+    AtomicReferenceArray<Money> monies = slots.get(ordinal);
+    if (monies == null) {
+      slots.compareAndSet(ordinal, null, new AtomicReferenceArray<Money>((int) (maxMinorUnits - minMinorUnits + 1)));
+      monies = slots.get(ordinal);
+    }
+    return monies;
+  }
+
+  private boolean isInRange(long minorUnits) {
+    return minorUnits >= minMinorUnits && minorUnits <= maxMinorUnits;
+  }
+
+}
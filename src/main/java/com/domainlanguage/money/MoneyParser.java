@@ -0,0 +1,280 @@
+package com.domainlanguage.money;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+
+/**
+ * Parses amounts like "1,234.56", "$-1,234.56", "-€10" or "1234.56 EUR", e.g. from CSV or ledger files.
+ *
+ * An amount may have a leading sign, a symbol prefix (as given by {@link CurrencyUtils#getSymbol(Currency)}), grouping
+ * separators between groups of three digits in its integer part, and an ISO code suffix. Without a suffix, amounts are
+ * in the parser's currency.
+ *
+ * The {@code parseMinorUnits} methods read characters, or bytes of ASCII/UTF-8 text, in place and return a
+ * {@code long} of minor units, so the common case allocates nothing. Malformed input throws
+ * {@link NumberFormatException}. Parsers are immutable and thread safe.
+ */
+public class MoneyParser {
+
+  private final Currency currency;
+  private final char groupingSeparator;
+  private final char decimalSeparator;
+  private final String symbol;
+  private final byte[] symbolBytes;
+
+  public MoneyParser(Currency currency) {
+    this(currency, ',', '.');
+  }
+
+  public MoneyParser(Currency currency, char groupingSeparator, char decimalSeparator) {
+    if (groupingSeparator == decimalSeparator) {
+      throw new IllegalArgumentException("Grouping and decimal separators must differ");
+    }
+    this.currency = currency;
+    this.groupingSeparator = groupingSeparator;
+    this.decimalSeparator = decimalSeparator;
+    symbol = MoneyParser.symbolOf(currency);
+    symbolBytes = symbol == null ? null : symbol.getBytes(StandardCharsets.UTF_8);
+  }
+
+  public Currency getCurrency() {
+    return currency;
+  }
+
+  public Money parse(CharSequence text) {
+    return parse(text, 0, text.length());
+  }
+
+  public Money parse(CharSequence text, int start, int end) {
+    return parseFrom(text, start, end);
+  }
+
+  /** Parses the bytes from {@code start} (inclusive) to {@code end} (exclusive), ignoring the buffer's position. */
+  public Money parse(ByteBuffer bytes, int start, int end) {
+    return parseFrom(bytes, start, end);
+  }
+
+  /** @return the amount in minor units of this parser's currency */
+  public long parseMinorUnits(CharSequence text) {
+    return parseMinorUnits(text, 0, text.length());
+  }
+
+  public long parseMinorUnits(CharSequence text, int start, int end) {
+    return parseMinorUnitsFrom(text, start, end);
+  }
+
+  public long parseMinorUnits(ByteBuffer bytes, int start, int end) {
+    return parseMinorUnitsFrom(bytes, start, end);
+  }
+
+  private long parseMinorUnitsFrom(Object source, int start, int end) {
+    end = MoneyParser.trimEnd(source, start, end);
+    int suffix = MoneyParser.suffixOrdinal(source, start, end);
+    if (suffix >= 0) {
+      if (!Currencies.get(suffix).equals(currency)) {
+        throw MoneyParser.invalid(source, start, end, "is not in " + currency);
+      }
+      end = MoneyParser.trimEnd(source, start, end - 3);
+    }
+    try {
+      return parseUnits(source, start, end, currency, symbol, symbolBytes, null);
+    } catch (ArithmeticException overflow) {
+      throw MoneyParser.invalid(source, start, end, "is too large");
+    }
+  }
+
+  private Money parseFrom(Object source, int start, int end) {
+    end = MoneyParser.trimEnd(source, start, end);
+    int suffix = MoneyParser.suffixOrdinal(source, start, end);
+    Currency parsed = currency;
+    String parsedSymbol = symbol;
+    byte[] parsedSymbolBytes = symbolBytes;
+    if (suffix >= 0) {
+      end = MoneyParser.trimEnd(source, start, end - 3);
+      if (!Currencies.get(suffix).equals(currency)) {
+        parsed = Currencies.get(suffix);
+        parsedSymbol = MoneyParser.symbolOf(parsed);
+        parsedSymbolBytes = parsedSymbol == null ? null : parsedSymbol.getBytes(StandardCharsets.UTF_8);
+      }
+    }
+    BigInteger[] overflow = new BigInteger[1];
+    long units = parseUnits(source, start, end, parsed, parsedSymbol, parsedSymbolBytes, overflow);
+    if (overflow[0] != null) {
+      return MinorUnits.toMoney(overflow[0], parsed);
+    }
+    return MinorUnits.toMoney(units, parsed);
+  }
+
+  /**
+   * Checks the whole amount in one pass. If it won't fit in a long, throws {@link ArithmeticException}, or, given
+   * {@code overflow}, carries on in a BigInteger, which it leaves in {@code overflow[0]}.
+   */
+  private long parseUnits(
+    Object source,
+    int start,
+    int end,
+    Currency currency,
+    String symbol,
+    byte[] symbolBytes,
+    BigInteger[] overflow) {
+    int pos = MoneyParser.skipSpaces(source, start, end);
+    boolean negative = false;
+    if (pos < end && (MoneyParser.at(source, pos) == '-' || MoneyParser.at(source, pos) == '+')) {
+      negative = MoneyParser.at(source, pos++) == '-';
+    }
+    int symbolLength = MoneyParser.matchSymbol(source, pos, end, symbol, symbolBytes);
+    if (symbolLength > 0) {
+      pos = MoneyParser.skipSpaces(source, pos + symbolLength, end);
+      if (pos < end && MoneyParser.at(source, pos) == '-' && !negative) {
+        negative = true;
+        pos++;
+      }
+    }
+    int fractionDigits = Math.max(currency.getDefaultFractionDigits(), 0);
+    long units = 0;
+    BigInteger big = null;
+    int digits = 0;
+    int decimals = -1;
+    // digits since the last grouping separator, or -1 if there hasn't been one
+    int grouped = -1;
+    for (; pos < end; pos++) {
+      int c = MoneyParser.at(source, pos);
+      if (c >= '0' && c <= '9') {
+        if (decimals >= 0) {
+          if (decimals == fractionDigits) {
+            if (c != '0') {
+              throw MoneyParser.invalid(source, start, end, "has more than " + fractionDigits + " decimal places");
+            }
+            continue;
+          }
+          decimals++;
+        } else if (grouped >= 0 && ++grouped > 3) {
+          throw MoneyParser.invalid(source, start, end, "has a digit group that isn't three digits");
+        }
+        if (big == null) {
+          try {
+            units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+          } catch (ArithmeticException tooLarge) {
+            big = MoneyParser.overflow(units, overflow).multiply(BigInteger.TEN).add(BigInteger.valueOf(c - '0'));
+          }
+        } else {
+          big = big.multiply(BigInteger.TEN).add(BigInteger.valueOf(c - '0'));
+        }
+        digits++;
+      } else if (c == groupingSeparator && decimals < 0 && digits > 0) {
+        if (grouped < 0 ? digits > 3 : grouped != 3) {
+          throw MoneyParser.invalid(source, start, end, "has a digit group that isn't three digits");
+        }
+        grouped = 0;
+      } else if (c == decimalSeparator && decimals < 0) {
+        decimals = 0;
+      } else {
+        break;
+      }
+    }
+    if (digits == 0 || MoneyParser.skipSpaces(source, pos, end) != end) {
+      throw MoneyParser.invalid(source, start, end, "is not a valid amount");
+    }
+    if (grouped >= 0 && grouped != 3) {
+      throw MoneyParser.invalid(source, start, end, "has a digit group that isn't three digits");
+    }
+    for (int i = Math.max(decimals, 0); i < fractionDigits; i++) {
+      if (big == null) {
+        try {
+          units = Math.multiplyExact(units, 10);
+          continue;
+        } catch (ArithmeticException tooLarge) {
+          big = MoneyParser.overflow(units, overflow);
+        }
+      }
+      big = big.multiply(BigInteger.TEN);
+    }
+    if (big != null) {
+      overflow[0] = negative ? big.negate() : big;
+      return 0;
+    }
+    return negative ? -units : units;
+  }
+
+  /** @return {@code units} as a BigInteger to carry on with, or throws if the caller wants a long */
+  private static BigInteger overflow(long units, BigInteger[] overflow) {
+    if (overflow == null) {
+      throw new ArithmeticException("long overflow");
+    }
+    return BigInteger.valueOf(units);
+  }
+
+  private static int matchSymbol(Object source, int pos, int end, String symbol, byte[] symbolBytes) {
+    if (symbol == null) {
+      return 0;
+    }
+    int length = source instanceof CharSequence ? symbol.length() : symbolBytes.length;
+    if (end - pos < length) {
+      return 0;
+    }
+    for (int i = 0; i < length; i++) {
+      int expected = source instanceof CharSequence ? symbol.charAt(i) : symbolBytes[i] & 0xFF;
+      if (MoneyParser.at(source, pos + i) != expected) {
+        return 0;
+      }
+    }
+    return length;
+  }
+
+  /** @return the ordinal of a trailing ISO code, or -1 if there isn't one */
+  private static int suffixOrdinal(Object source, int start, int end) {
+    if (end - start < 4) {
+      return -1;
+    }
+    int before = MoneyParser.at(source, end - 4);
+    if (before != ' ' && (before < '0' || before > '9')) {
+      return -1;
+    }
+    return Currencies.ordinal(MoneyParser.at(source, end - 3), MoneyParser.at(source, end - 2), MoneyParser.at(
+      source,
+      end - 1));
+  }
+
+  private static int skipSpaces(Object source, int pos, int end) {
+    while (pos < end && MoneyParser.at(source, pos) == ' ') {
+      pos++;
+    }
+    return pos;
+  }
+
+  private static int trimEnd(Object source, int start, int end) {
+    while (end > start && MoneyParser.at(source, end - 1) == ' ') {
+      end--;
+    }
+    return end;
+  }
+
+  private static int at(Object source, int i) {
+    if (source instanceof CharSequence) {
+      return ((CharSequence) source).charAt(i);
+    }
+    return ((ByteBuffer) source).get(i) & 0xFF;
+  }
+
+  private static NumberFormatException invalid(Object source, int start, int end, String problem) {
+    String text;
+    if (source instanceof CharSequence) {
+      text = ((CharSequence) source).subSequence(start, end).toString();
+    } else {
+      byte[] bytes = new byte[end - start];
+      for (int i = start; i < end; i++) {
+        bytes[i - start] = ((ByteBuffer) source).get(i);
+      }
+      text = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return new NumberFormatException("\"" + text + "\" " + problem);
+  }
+
+  private static String symbolOf(Currency currency) {
+    CurrencyContext context = CurrencyContext.of(currency);
+    return context.hasSymbol() ? context.getSymbol() : null;
+  }
+
+}
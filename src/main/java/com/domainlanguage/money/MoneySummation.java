@@ -0,0 +1,143 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Currency;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collector;
+
+/** Sums of {@link Money} accumulated in long minor units, see {@link Money#summing(Currency)} and friends. */
+final class MoneySummation {
+
+  /** Arrays shorter than this are not worth forking for. */
+  static final int PARALLEL_THRESHOLD = 1 << 13;
+
+  static Collector<Money, ?, Money> summing(final Currency currency) {
+    return Collector.of(UnitsAccumulator::new, (sum, money) -> {
+      MoneySummation.assertCurrency(money, currency);
+      sum.add(money.getAmount());
+    }, (a, b) -> {
+      a.add(b);
+      return a;
+    }, sum -> sum.toMoney(currency), Collector.Characteristics.UNORDERED);
+  }
+
+  static Collector<Money, ?, Money> summingConcurrently(final Currency currency) {
+    return Collector.of(
+      () -> new ConcurrentSum(currency),
+      ConcurrentSum::add,
+      ConcurrentSum::merge,
+      ConcurrentSum::toMoney,
+      Collector.Characteristics.CONCURRENT,
+      Collector.Characteristics.UNORDERED);
+  }
+
+  static Money parallelSum(Money[] monies) {
+    if (monies.length == 0) {
+      throw new IllegalArgumentException("Cannot sum an empty array, as it has no currency");
+    }
+    Currency currency = monies[0].getCurrency();
+    SumTask task = new SumTask(monies, 0, monies.length, currency);
+    UnitsAccumulator sum = monies.length < PARALLEL_THRESHOLD ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+    return sum.toMoney(currency);
+  }
+
+  static void assertCurrency(Money money, Currency currency) {
+    if (!currency.equals(money.getCurrency())) {
+      throw new IllegalArgumentException(money.toString() + " is not same currency as " + currency);
+    }
+  }
+
+  private static class SumTask extends RecursiveTask<UnitsAccumulator> {
+    private static final long serialVersionUID = 1L;
+    private final Money[] monies;
+    private final int from;
+    private final int to;
+    private final Currency currency;
+
+    private SumTask(Money[] monies, int from, int to, Currency currency) {
+      this.monies = monies;
+      this.from = from;
+      this.to = to;
+      this.currency = currency;
+    }
+
+    @Override
+    protected UnitsAccumulator compute() {
+      if (to - from <= PARALLEL_THRESHOLD) {
+        UnitsAccumulator sum = new UnitsAccumulator();
+        for (int i = from; i < to; i++) {
+          MoneySummation.assertCurrency(monies[i], currency);
+          sum.add(monies[i].getAmount());
+        }
+        return sum;
+      }
+      int middle = (from + to) >>> 1;
+      SumTask left = new SumTask(monies, from, middle, currency);
+      left.fork();
+      UnitsAccumulator sum = new SumTask(monies, middle, to, currency).compute();
+      sum.add(left.join());
+      return sum;
+    }
+  }
+
+  /** A thread-safe sum, CAS'ing into a long and only locking to add values that would overflow it. */
+  private static class ConcurrentSum {
+    private final Currency currency;
+    private final AtomicLong units = new AtomicLong();
+    private BigInteger overflow = BigInteger.ZERO;
+
+    private ConcurrentSum(Currency currency) {
+      this.currency = currency;
+    }
+
+    private void add(Money money) {
+      MoneySummation.assertCurrency(money, currency);
+      BigDecimal amount = money.getAmount();
+      if (MinorUnits.fits(amount)) {
+        add(MinorUnits.of(amount));
+      } else {
+        addOverflow(amount.unscaledValue());
+      }
+    }
+
+    private void add(long value) {
+      while (true) {
+        long current = units.get();
+        long result = current + value;
+        if (((current ^ result) & (value ^ result)) < 0) {
+          addOverflow(BigInteger.valueOf(value));
+          return;
+        }
+        if (units.compareAndSet(current, result)) {
+          return;
+        }
+      }
+    }
+
+    private synchronized void addOverflow(BigInteger value) {
+      overflow = overflow.add(value);
+    }
+
+    private ConcurrentSum merge(ConcurrentSum other) {
+      add(other.units.get());
+      addOverflow(other.overflow());
+      return this;
+    }
+
+    private synchronized BigInteger overflow() {
+      return overflow;
+    }
+
+    private Money toMoney() {
+      BigInteger total = overflow().add(BigInteger.valueOf(units.get()));
+      return new Money(new BigDecimal(total, currency.getDefaultFractionDigits()), currency);
+    }
+  }
+
+  private MoneySummation() {
+  }
+
+}
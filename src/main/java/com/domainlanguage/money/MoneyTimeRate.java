@@ -8,6 +8,7 @@ package com.domainlanguage.money;
 import java.math.BigDecimal;
 import java.util.Currency;
 
+import com.domainlanguage.base.Rational;
 import com.domainlanguage.time.Duration;
 import com.domainlanguage.time.TimeRate;
 
@@ -33,6 +34,20 @@ public class MoneyTimeRate {
     return Money.valueOf(rate.over(duration, scale, roundRule), currency);
   }
 
+  /** @return the exact amount over {@code duration} rounded per {@code policy}, in long minor units when they fit */
+  public Money over(Duration duration, RoundingPolicy policy) {
+    Rational perUnit = Rational.of(rate.getQuantity().movePointRight(currency.getDefaultFractionDigits()));
+    return Money.valueOf(perUnit.times(duration.rationalDividedBy(rate.getUnit())), currency, policy);
+  }
+
+  TimeRate getRate() {
+    return rate;
+  }
+
+  Currency getCurrency() {
+    return currency;
+  }
+
   @Override
   public boolean equals(Object object) {
     if (object instanceof MoneyTimeRate) {
@@ -0,0 +1,57 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rational;
+
+/**
+ * A ratio, or a decimal factor, reduced once, as a {@link Rational}, to a long numerator and a positive long
+ * denominator, so it can be applied to many amounts in minor units with a multiply and a rounded divide each. Gives
+ * the same results as {@link Money#applying(Ratio, int)} and {@link Money#times(BigDecimal, int)}.
+ */
+final class Multiplier {
+
+  private final long numerator;
+  private final long denominator;
+  // false when the terms don't fit in longs, so every amount has to go through BigDecimal
+  private final boolean exact;
+
+  static Multiplier of(Ratio ratio) {
+    if (ratio.getDenominator().signum() == 0) {
+      // leave it to BigDecimal to throw
+      return new Multiplier(0, 1, false);
+    }
+    return Multiplier.of(ratio.toRational());
+  }
+
+  static Multiplier of(BigDecimal factor) {
+    return Multiplier.of(Rational.of(factor));
+  }
+
+  static Multiplier of(Rational rational) {
+    if (!rational.fitsInLongs()) {
+      return new Multiplier(0, 1, false);
+    }
+    return new Multiplier(rational.longNumerator(), rational.longDenominator(), true);
+  }
+
+  private Multiplier(long numerator, long denominator, boolean exact) {
+    this.numerator = numerator;
+    this.denominator = denominator;
+    this.exact = exact;
+  }
+
+  boolean isExact() {
+    return exact;
+  }
+
+  /**
+   * @return {@code minorUnits} times this multiplier, rounded per {@code roundingMode}, or throws
+   *         {@link ArithmeticException} if that overflows, or needs rounding that the mode forbids
+   */
+  long apply(long minorUnits, int roundingMode) {
+    return MinorUnits.divide(Math.multiplyExact(minorUnits, numerator), denominator, roundingMode);
+  }
+
+}
@@ -1,19 +1,16 @@
 package com.domainlanguage.money;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+
 public class NumberUtils {
 
   /** @return {@code value} formatted with commas, e.g. 1000 as "1,000". */
   public static String format(final long value) {
-    boolean negative = value < 0;
-    final String num = String.valueOf(Math.abs(value));
-    String formattedNum = "";
-    for (int i = num.length() - 1, j = 0; i >= 0; i--, j++) {
-      formattedNum += num.charAt(j);
-      if (i % 3 == 0 && i != 0) {
-        formattedNum += ",";
-      }
-    }
-    return negative ? "-" + formattedNum : formattedNum;
+    StringBuilder buffer = new StringBuilder(26);
+    NumberUtils.appendTo(buffer, value, 0);
+    return buffer.toString();
   }
 
   /** @return {@code value} formatted as commas to {@code decimalPlaces}, e.g. 1000.125 as "1,000.13". */
@@ -28,4 +25,73 @@ public class NumberUtils {
     long decimalPart = Math.round(Math.abs(value) * adjust % adjust) + (long) adjust;
     return format(integerPart) + "." + Long.toString(decimalPart).substring(1);
   }
+
+  /** Appends {@code amount} formatted with commas, exactly and at its own scale, e.g. 1000.125 as "1,000.125". */
+  public static void appendTo(StringBuilder buffer, BigDecimal amount) {
+    try {
+      NumberUtils.appendTo((Appendable) buffer, amount);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Appends {@code unscaled} with the decimal point moved {@code decimalPlaces} left, e.g. 100012 and 2 as "1,000.12". */
+  public static void appendTo(StringBuilder buffer, long unscaled, int decimalPlaces) {
+    try {
+      NumberUtils.appendTo((Appendable) buffer, unscaled, decimalPlaces);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static void appendTo(Appendable out, BigDecimal amount) throws IOException {
+    if (amount.scale() >= 0 && MinorUnits.fits(amount)) {
+      NumberUtils.appendTo(out, MinorUnits.of(amount), amount.scale());
+      return;
+    }
+    BigDecimal normalized = amount.scale() < 0 ? amount.setScale(0) : amount;
+    String digits = normalized.unscaledValue().abs().toString();
+    if (normalized.signum() < 0) {
+      out.append('-');
+    }
+    int decimalPlaces = normalized.scale();
+    int totalDigits = Math.max(digits.length(), decimalPlaces + 1);
+    int leadingZeros = totalDigits - digits.length();
+    for (int position = totalDigits - 1; position >= 0; position--) {
+      int index = totalDigits - 1 - position - leadingZeros;
+      out.append(index < 0 ? '0' : digits.charAt(index));
+      NumberUtils.appendSeparator(out, position, decimalPlaces);
+    }
+  }
+
+  /** Writes each digit straight to {@code out}, so no intermediate Strings are created. */
+  public static void appendTo(Appendable out, long unscaled, int decimalPlaces) throws IOException {
+    // work with the value as a negative number, so that Long.MIN_VALUE needs no special case
+    long negative = unscaled < 0 ? unscaled : -unscaled;
+    if (unscaled < 0) {
+      out.append('-');
+    }
+    int totalDigits = Math.max(NumberUtils.digitCount(negative), decimalPlaces + 1);
+    for (int position = totalDigits - 1; position >= 0; position--) {
+      long digit = position > 18 ? 0 : -(negative / MinorUnits.pow10(position) % 10);
+      out.append((char) ('0' + digit));
+      NumberUtils.appendSeparator(out, position, decimalPlaces);
+    }
+  }
+
+  private static void appendSeparator(Appendable out, int position, int decimalPlaces) throws IOException {
+    if (position == decimalPlaces && decimalPlaces > 0) {
+      out.append('.');
+    } else if (position > decimalPlaces && (position - decimalPlaces) % 3 == 0) {
+      out.append(',');
+    }
+  }
+
+  private static int digitCount(long negative) {
+    int count = 1;
+    while (count < 19 && negative <= -MinorUnits.pow10(count)) {
+      count++;
+    }
+    return count;
+  }
 }
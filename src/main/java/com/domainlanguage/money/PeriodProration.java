@@ -0,0 +1,125 @@
+package com.domainlanguage.money;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.domainlanguage.time.BusinessCalendar;
+import com.domainlanguage.time.CalendarDate;
+import com.domainlanguage.time.CalendarInterval;
+import com.domainlanguage.time.Duration;
+import com.domainlanguage.time.TimeInterval;
+import com.domainlanguage.time.TimePoint;
+
+/**
+ * Splits a total across periods of time in proportion to their lengths, in days, business days or milliseconds, e.g.
+ * a premium across the months of a policy term. Lengths in days come from {@link CalendarDate#toEpochDay()}, not
+ * java.util.Calendar, so this is cheap enough for batches of millions. The parts are given out as in
+ * {@link Proration}, and returned mapped from their periods in order, so the periods must be distinct.
+ *
+ * The overloads taking an interval and a period length cut the interval into consecutive periods of that length,
+ * the last of which is cut short at the end of the interval if need be.
+ */
+public class PeriodProration {
+
+  public static Map<CalendarInterval, Money> byDays(Money total, CalendarInterval interval, Duration periodLength) {
+    return PeriodProration.byDays(total, PeriodProration.periods(interval, periodLength));
+  }
+
+  public static Map<CalendarInterval, Money> byDays(Money total, List<CalendarInterval> periods) {
+    long[] days = new long[periods.size()];
+    for (int i = 0; i < days.length; i++) {
+      days[i] = periods.get(i).lengthInDaysInt();
+    }
+    return PeriodProration.prorate(total, periods, days);
+  }
+
+  public static Map<CalendarInterval, Money> byBusinessDays(
+    Money total,
+    CalendarInterval interval,
+    Duration periodLength,
+    BusinessCalendar calendar) {
+    return PeriodProration.byBusinessDays(total, PeriodProration.periods(interval, periodLength), calendar);
+  }
+
+  public static Map<CalendarInterval, Money> byBusinessDays(
+    Money total,
+    List<CalendarInterval> periods,
+    BusinessCalendar calendar) {
+    long[] days = new long[periods.size()];
+    for (int i = 0; i < days.length; i++) {
+      days[i] = calendar.getElapsedBusinessDays(periods.get(i));
+    }
+    return PeriodProration.prorate(total, periods, days);
+  }
+
+  public static Map<TimeInterval, Money> byMilliseconds(Money total, TimeInterval interval, Duration periodLength) {
+    return PeriodProration.byMilliseconds(total, PeriodProration.periods(interval, periodLength));
+  }
+
+  public static Map<TimeInterval, Money> byMilliseconds(Money total, List<TimeInterval> periods) {
+    long[] milliseconds = new long[periods.size()];
+    for (int i = 0; i < milliseconds.length; i++) {
+      TimeInterval period = periods.get(i);
+      milliseconds[i] = period.end().getTime() - period.start().getTime();
+    }
+    return PeriodProration.prorate(total, periods, milliseconds);
+  }
+
+  private static <P> Map<P, Money> prorate(Money total, List<P> periods, long[] lengths) {
+    Money[] parts = ProrationKernel.of(lengths).prorate(total, new Money[lengths.length]);
+    Map<P, Money> result = new LinkedHashMap<P, Money>();
+    for (int i = 0; i < parts.length; i++) {
+      if (result.put(periods.get(i), parts[i]) != null) {
+        throw new IllegalArgumentException(periods.get(i) + " is given more than once");
+      }
+    }
+    return result;
+  }
+
+  static List<CalendarInterval> periods(CalendarInterval interval, Duration periodLength) {
+    PeriodProration.assertPeriods(interval.hasLowerLimit() && interval.hasUpperLimit(), periodLength);
+    long first = interval.includesLowerLimit() ? interval.start().toEpochDay() : interval.start().toEpochDay() + 1;
+    long last = interval.includesUpperLimit() ? interval.end().toEpochDay() : interval.end().toEpochDay() - 1;
+    List<CalendarInterval> periods = new ArrayList<CalendarInterval>();
+    while (first <= last) {
+      CalendarDate start = CalendarDate.fromEpochDay(first);
+      long end = Math.min(periodLength.startingFrom(start).end().toEpochDay(), last);
+      if (end < first) {
+        throw new IllegalArgumentException(periodLength + " is shorter than a day");
+      }
+      periods.add(CalendarInterval.inclusive(start, CalendarDate.fromEpochDay(end)));
+      first = end + 1;
+    }
+    return periods;
+  }
+
+  private static List<TimeInterval> periods(TimeInterval interval, Duration periodLength) {
+    PeriodProration.assertPeriods(interval.hasLowerLimit() && interval.hasUpperLimit(), periodLength);
+    List<TimeInterval> periods = new ArrayList<TimeInterval>();
+    TimePoint start = interval.start();
+    boolean closedStart = interval.includesLowerLimit();
+    while (start.isBefore(interval.end())) {
+      TimePoint end = periodLength.addedTo(start);
+      if (end.isBefore(interval.end())) {
+        periods.add(TimeInterval.over(start, closedStart, end, false));
+      } else {
+        periods.add(TimeInterval.over(start, closedStart, interval.end(), interval.includesUpperLimit()));
+      }
+      start = end;
+      closedStart = true;
+    }
+    return periods;
+  }
+
+  private static void assertPeriods(boolean bounded, Duration periodLength) {
+    if (!bounded) {
+      throw new IllegalArgumentException("Cannot cut an unbounded interval into periods");
+    }
+    if (periodLength.getQuantity() <= 0) {
+      throw new IllegalArgumentException("Periods must have a positive length, not " + periodLength);
+    }
+  }
+
+}
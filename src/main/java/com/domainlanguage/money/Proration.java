@@ -7,131 +7,169 @@
 package com.domainlanguage.money;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.Currency;
 import java.util.List;
 
 import com.domainlanguage.base.Ratio;
-import com.domainlanguage.base.Rounding;
+import com.domainlanguage.base.Rational;
 
+/**
+ * Splits a total into parts, in proportion to weights or evenly, such that the parts always sum exactly to the total.
+ * Each part is first given its share rounded toward zero, and the few minor units left over are then given out one
+ * apiece, from the first part on, unless an {@link AllocationStrategy} says otherwise. The {@code results} overloads
+ * fill a caller-supplied array rather than allocating one.
+ */
 public class Proration {
 
   public static Money[] dividedEvenlyIntoParts(Money total, int n) {
-    Money lowResult = total.dividedBy(BigDecimal.valueOf(n), Rounding.DOWN);
-    Money[] lowResults = new Money[n];
-    for (int i = 0; i < n; i++) {
-      lowResults[i] = lowResult;
+    return Proration.dividedEvenlyIntoParts(total, new Money[n]);
+  }
+
+  /** Divides {@code total} into {@code results.length} parts, which differ by at most one minor unit. */
+  public static Money[] dividedEvenlyIntoParts(Money total, Money[] results) {
+    if (results.length == 0) {
+      throw new ArithmeticException("Cannot divide into zero parts");
+    }
+    Currency currency = total.getCurrency();
+    Money low;
+    Money high;
+    int highs;
+    if (MinorUnits.fits(total.getAmount())) {
+      long units = MinorUnits.of(total);
+      long each = units / results.length;
+      long leftover = units % results.length;
+      low = MinorUnits.toMoney(each, currency);
+      high = MinorUnits.toMoney(each + Long.signum(leftover), currency);
+      highs = (int) Math.abs(leftover);
+    } else {
+      BigInteger[] division = total.getAmount().unscaledValue().divideAndRemainder(BigInteger.valueOf(results.length));
+      low = MinorUnits.toMoney(division[0], currency);
+      high = MinorUnits.toMoney(division[0].add(BigInteger.valueOf(division[1].signum())), currency);
+      highs = division[1].abs().intValue();
+    }
+    // only two distinct amounts, so the parts share instances
+    for (int i = 0; i < results.length; i++) {
+      results[i] = i < highs ? high : low;
     }
-    Money remainder = total.minus(Proration.sum(lowResults));
-    return Proration.distributeRemainderOver(lowResults, remainder);
+    return results;
   }
 
-  public static Money[] proratedOver(Money total, long[] longProportions) {
-    BigDecimal[] proportions = new BigDecimal[longProportions.length];
-    for (int i = 0; i < longProportions.length; i++) {
-      proportions[i] = BigDecimal.valueOf(longProportions[i]);
+  /** Divides {@code total} into {@code n} parts, with the leftover minor units given out by {@code strategy}. */
+  public static Money[] dividedEvenlyIntoParts(Money total, int n, AllocationStrategy strategy) {
+    if (n == 0) {
+      throw new ArithmeticException("Cannot divide into zero parts");
     }
-    return Proration.proratedOver(total, proportions);
+    long[] ones = new long[n];
+    Arrays.fill(ones, 1);
+    return ProrationKernel.of(ones).prorate(total, new Money[n], strategy);
+  }
+
+  public static Money[] proratedOver(Money total, long[] longProportions) {
+    return Proration.proratedOver(total, longProportions, new Money[longProportions.length]);
+  }
+
+  public static Money[] proratedOver(Money total, long[] longProportions, Money[] results) {
+    return ProrationKernel.of(longProportions).prorate(total, results);
+  }
+
+  public static Money[] proratedOver(Money total, long[] longProportions, AllocationStrategy strategy) {
+    return ProrationKernel.of(longProportions).prorate(total, new Money[longProportions.length], strategy);
+  }
+
+  /**
+   * As {@link #proratedOver(Money, long[])}, but computed in fork-join chunks for very many parts. The results are
+   * identical.
+   */
+  public static Money[] parallelProratedOver(Money total, long[] longProportions) {
+    return ProrationKernel.of(longProportions).parallelProrate(
+      total,
+      new Money[longProportions.length],
+      AllocationStrategy.ROUND_ROBIN);
+  }
+
+  public static Money[] parallelProratedOver(Money total, long[] longProportions, AllocationStrategy strategy) {
+    return ProrationKernel.of(longProportions).parallelProrate(total, new Money[longProportions.length], strategy);
   }
 
   public static Money[] proratedOver(Money total, BigDecimal[] proportions) {
-    return Proration.proratedOver(total, Proration.ratios(proportions));
+    return Proration.proratedOver(total, proportions, new Money[proportions.length]);
+  }
+
+  public static Money[] proratedOver(Money total, BigDecimal[] proportions, Money[] results) {
+    return ProrationKernel.of(proportions).prorate(total, results);
+  }
+
+  public static Money[] proratedOver(Money total, BigDecimal[] proportions, AllocationStrategy strategy) {
+    return ProrationKernel.of(proportions).prorate(total, new Money[proportions.length], strategy);
   }
 
   public static Money[] proratedOver(Money total, Ratio[] ratios) {
     return Proration.proratedOver(total, Arrays.asList(ratios));
   }
 
+  public static Money[] proratedOver(Money total, Ratio[] ratios, Money[] results) {
+    return ProrationKernel.of(Arrays.asList(ratios)).prorate(total, results);
+  }
+
+  public static Money[] proratedOver(Money total, Ratio[] ratios, AllocationStrategy strategy) {
+    return ProrationKernel.of(Arrays.asList(ratios)).prorate(total, new Money[ratios.length], strategy);
+  }
+
+  /**
+   * Splits {@code total} in proportion to the ratios, brought to a common denominator, so when they sum to one each
+   * part is its ratio of {@code total}, rounded toward zero, and when they don't, each is scaled by the same factor.
+   */
   public static Money[] proratedOver(Money total, List<Ratio> ratios) {
-    Money[] simpleResult = new Money[ratios.size()];
-    int scale = Proration.defaultScaleForIntermediateCalculations(total);
-
-    // Check to see if the the total is a multiple of all the denominators,
-    // in which case simple multiplication is preferable to avoid rounding.
-    // Note: the cool thing to do would be to reduce the fractions, get the
-    // lowest common denominator, and see if total is a multiple of that.
-    // But we do the simple thing for now as that is all CBAS is passing in.
-    boolean dividesEvenly = true;
-    for (int i = 0; i < ratios.size(); i++) {
-      if (!ratios.get(i).isMultipleOfDenominator(total.getAmount())) {
-        dividesEvenly = false;
-        break;
-      }
-    }
-    if (dividesEvenly) {
-      for (int i = 0; i < ratios.size(); i++) {
-        simpleResult[i] = new Money(ratios
-          .get(i)
-          .times(total.getAmount())
-          .decimalValue(total.getCurrency().getDefaultFractionDigits(), Rounding.DOWN), total.getCurrency());
-      }
-      return simpleResult;
-    }
+    return ProrationKernel.of(ratios).prorate(total, new Money[ratios.size()]);
+  }
 
-    for (int i = 0; i < ratios.size(); i++) {
-      BigDecimal multiplier = ratios.get(i).decimalValue(scale, Rounding.DOWN);
-      simpleResult[i] = total.times(multiplier, Rounding.DOWN);
-    }
-    Money remainder = total.minus(Proration.sum(simpleResult));
-    return Proration.distributeRemainderOver(simpleResult, remainder);
+  /** As {@link #proratedOver(Money, List)}, in long arithmetic unless the common denominator overflows. */
+  public static Money[] proratedOver(Money total, Rational[] rationals) {
+    return ProrationKernel.of(rationals).prorate(total, new Money[rationals.length]);
   }
 
   public static Money partOfWhole(Money total, long portion, long whole) {
     return Proration.partOfWhole(total, Ratio.of(portion, whole));
   }
 
+  /** @return {@code total} times {@code ratio}, exactly, then rounded toward zero */
   public static Money partOfWhole(Money total, Ratio ratio) {
-    int scale = Proration.defaultScaleForIntermediateCalculations(total);
-    BigDecimal multiplier = ratio.decimalValue(scale, Rounding.DOWN);
-    return total.times(multiplier, Rounding.DOWN);
+    return Proration.partOfWhole(total, ratio, RoundingPolicy.DOWN);
   }
 
-  static Money[] distributeRemainderOver(Money[] amounts, Money remainder) {
-    int increments = remainder.dividedBy(remainder.minimumIncrement()).decimalValue(0, Rounding.UNNECESSARY).intValue();
-    Proration.assertAmountsLengthLessThanOrEqualTo(amounts, increments);
+  /**
+   * @return {@code total} times {@code ratio}, exactly, then rounded once per {@code policy}; with
+   *         {@link RoundingPolicy#DOWN}, the same as {@link #partOfWhole(Money, Ratio)}
+   */
+  public static Money partOfWhole(Money total, Ratio ratio, RoundingPolicy policy) {
+    return total.applying(ratio, policy);
+  }
 
+  static Money[] distributeRemainderOver(Money[] amounts, Money remainder) {
     Money[] results = new Money[amounts.length];
+    Currency currency = remainder.getCurrency();
+    long[] units = new long[amounts.length];
     for (int i = 0; i < amounts.length; i++) {
-      results[i] = amounts[i];
+      MoneySummation.assertCurrency(amounts[i], currency);
+      units[i] = MinorUnits.of(amounts[i]);
     }
-    for (int i = 0; i < increments; i++) {
-      results[i % results.length] = results[i % results.length].incremented();
+    ProrationKernel.distribute(MinorUnits.of(remainder), units);
+    for (int i = 0; i < amounts.length; i++) {
+      results[i] = MinorUnits.toMoney(units[i], currency);
     }
     return results;
   }
 
   static Money sum(Money[] elements) {
-    Money sum = Money.valueOf(0, elements[0].getCurrency());
+    Currency currency = elements[0].getCurrency();
+    UnitsAccumulator sum = new UnitsAccumulator();
     for (int i = 0; i < elements.length; i++) {
-      sum = sum.plus(elements[i]);
-    }
-    return sum;
-  }
-
-  static BigDecimal sum(BigDecimal[] elements) {
-    BigDecimal sum = new BigDecimal(0);
-    for (int i = 0; i < elements.length; i++) {
-      sum = sum.add(elements[i]);
-    }
-    return sum;
-  }
-
-  static Ratio[] ratios(BigDecimal[] proportions) {
-    BigDecimal total = Proration.sum(proportions);
-    Ratio[] ratios = new Ratio[proportions.length];
-    for (int i = 0; i < ratios.length; i++) {
-      ratios[i] = Ratio.of(proportions[i], total);
-    }
-    return ratios;
-  }
-
-  private static int defaultScaleForIntermediateCalculations(Money total) {
-    return total.getCurrency().getDefaultFractionDigits() + 2;
-  }
-
-  private static void assertAmountsLengthLessThanOrEqualTo(Money[] amounts, int increments) {
-    if (increments > amounts.length) {
-      throw new IllegalArgumentException();
+      MoneySummation.assertCurrency(elements[i], currency);
+      sum.add(elements[i].getAmount());
     }
+    return sum.toMoney(currency);
   }
 
 }
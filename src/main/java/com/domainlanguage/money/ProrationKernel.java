@@ -0,0 +1,508 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rational;
+
+/**
+ * Splits a total, in minor units, in proportion to integer weights: part i gets {@code total * weights[i] / denominator}
+ * truncated toward zero, and the few minor units left over are then spread evenly from the first part on, so the
+ * parts always sum to the total. The work is one pass over the parts in {@code long} arithmetic, which only falls
+ * back to {@link BigInteger} for the products, or totals, that don't fit.
+ */
+final class ProrationKernel {
+
+  // null when a weight or the denominator doesn't fit in a long
+  private final long[] weights;
+  private final long denominator;
+  private final BigInteger[] bigWeights;
+  private final BigInteger bigDenominator;
+
+  /** Weights each proportion over their sum. The array is used as is, not copied. */
+  static ProrationKernel of(long[] proportions) {
+    long sum = 0;
+    for (int i = 0; i < proportions.length; i++) {
+      long result = sum + proportions[i];
+      if (((sum ^ result) & (proportions[i] ^ result)) < 0) {
+        return ProrationKernel.of(ProrationKernel.toBigIntegers(proportions));
+      }
+      sum = result;
+    }
+    return new ProrationKernel(proportions, sum);
+  }
+
+  static ProrationKernel of(BigDecimal[] proportions) {
+    int scale = 0;
+    for (int i = 0; i < proportions.length; i++) {
+      scale = Math.max(scale, proportions[i].scale());
+    }
+    BigInteger[] weights = new BigInteger[proportions.length];
+    for (int i = 0; i < proportions.length; i++) {
+      weights[i] = proportions[i].setScale(scale).unscaledValue();
+    }
+    return ProrationKernel.of(weights);
+  }
+
+  /**
+   * Brings the ratios to their lowest common denominator and weights each numerator over the numerators' sum, so
+   * ratios that don't sum to one are scaled in proportion.
+   */
+  static ProrationKernel of(List<Ratio> ratios) {
+    BigInteger[] numerators = new BigInteger[ratios.size()];
+    BigInteger[] denominators = new BigInteger[ratios.size()];
+    BigInteger common = BigInteger.ONE;
+    for (int i = 0; i < numerators.length; i++) {
+      Ratio ratio = ratios.get(i);
+      int scale = Math.max(Math.max(ratio.getNumerator().scale(), ratio.getDenominator().scale()), 0);
+      numerators[i] = ratio.getNumerator().movePointRight(scale).toBigIntegerExact();
+      denominators[i] = ratio.getDenominator().movePointRight(scale).toBigIntegerExact();
+      if (denominators[i].signum() == 0) {
+        throw new ArithmeticException("Ratio " + ratio + " has a zero denominator");
+      }
+      if (denominators[i].signum() < 0) {
+        numerators[i] = numerators[i].negate();
+        denominators[i] = denominators[i].negate();
+      }
+      // ratios usually share a denominator, which makes this a cheap equality check
+      if (!denominators[i].equals(common)) {
+        common = common.divide(common.gcd(denominators[i])).multiply(denominators[i]);
+      }
+    }
+    for (int i = 0; i < numerators.length; i++) {
+      if (!denominators[i].equals(common)) {
+        numerators[i] = numerators[i].multiply(common.divide(denominators[i]));
+      }
+    }
+    return ProrationKernel.of(numerators);
+  }
+
+  /** As {@link #of(List)}, but staying in longs while the common denominator and the numerators over it fit. */
+  static ProrationKernel of(Rational[] rationals) {
+    long[] numerators = new long[rationals.length];
+    long common = 1;
+    try {
+      for (int i = 0; i < rationals.length; i++) {
+        if (!rationals[i].fitsInLongs()) {
+          return ProrationKernel.ofBig(rationals);
+        }
+        long denominator = rationals[i].longDenominator();
+        if (denominator != common) {
+          common = Math.multiplyExact(common / MinorUnits.gcd(common, denominator), denominator);
+        }
+      }
+      for (int i = 0; i < rationals.length; i++) {
+        numerators[i] = Math.multiplyExact(rationals[i].longNumerator(), common / rationals[i].longDenominator());
+      }
+      return ProrationKernel.of(numerators);
+    } catch (ArithmeticException overflow) {
+      return ProrationKernel.ofBig(rationals);
+    }
+  }
+
+  private static ProrationKernel ofBig(Rational[] rationals) {
+    BigInteger common = BigInteger.ONE;
+    for (int i = 0; i < rationals.length; i++) {
+      BigInteger denominator = rationals[i].getDenominator();
+      if (!denominator.equals(common)) {
+        common = common.divide(common.gcd(denominator)).multiply(denominator);
+      }
+    }
+    BigInteger[] numerators = new BigInteger[rationals.length];
+    for (int i = 0; i < rationals.length; i++) {
+      numerators[i] = rationals[i].getNumerator().multiply(common.divide(rationals[i].getDenominator()));
+    }
+    return ProrationKernel.of(numerators);
+  }
+
+  private static ProrationKernel of(BigInteger[] proportions) {
+    BigInteger sum = BigInteger.ZERO;
+    for (int i = 0; i < proportions.length; i++) {
+      sum = sum.add(proportions[i]);
+    }
+    return ProrationKernel.of(proportions, sum);
+  }
+
+  private static ProrationKernel of(BigInteger[] weights, BigInteger denominator) {
+    if (denominator.bitLength() > 63) {
+      return new ProrationKernel(weights, denominator);
+    }
+    long[] longWeights = new long[weights.length];
+    for (int i = 0; i < weights.length; i++) {
+      if (weights[i].bitLength() > 63) {
+        return new ProrationKernel(weights, denominator);
+      }
+      longWeights[i] = weights[i].longValue();
+    }
+    return new ProrationKernel(longWeights, denominator.longValue());
+  }
+
+  private ProrationKernel(long[] weights, long denominator) {
+    this.weights = weights;
+    this.denominator = denominator;
+    bigWeights = null;
+    bigDenominator = null;
+  }
+
+  private ProrationKernel(BigInteger[] weights, BigInteger denominator) {
+    this.weights = null;
+    this.denominator = 0;
+    bigWeights = weights;
+    bigDenominator = denominator;
+  }
+
+  /**
+   * @return a copy of this kernel with the weights and denominator divided by their greatest common divisor, which
+   * prorates identically but keeps more products within a long
+   */
+  ProrationKernel reduced() {
+    if (weights == null) {
+      BigInteger divisor = bigDenominator;
+      for (int i = 0; i < bigWeights.length && !divisor.equals(BigInteger.ONE); i++) {
+        divisor = divisor.gcd(bigWeights[i]);
+      }
+      if (divisor.signum() == 0) {
+        return new ProrationKernel(bigWeights.clone(), bigDenominator);
+      }
+      BigInteger[] reduced = new BigInteger[bigWeights.length];
+      for (int i = 0; i < reduced.length; i++) {
+        reduced[i] = bigWeights[i].divide(divisor);
+      }
+      return ProrationKernel.of(reduced, bigDenominator.divide(divisor));
+    }
+    long divisor = denominator;
+    for (int i = 0; i < weights.length && divisor != 1 && divisor != -1; i++) {
+      divisor = MinorUnits.gcd(divisor, weights[i]);
+    }
+    // Long.MIN_VALUE has no positive counterpart, so leave such weights as they are
+    if (divisor == 0 || divisor == Long.MIN_VALUE) {
+      return new ProrationKernel(weights.clone(), denominator);
+    }
+    long[] reduced = new long[weights.length];
+    for (int i = 0; i < reduced.length; i++) {
+      reduced[i] = weights[i] / divisor;
+    }
+    return new ProrationKernel(reduced, denominator / divisor);
+  }
+
+  int size() {
+    return weights == null ? bigWeights.length : weights.length;
+  }
+
+  /** Fills {@code results}, which must have one element per weight, with the parts of {@code total}. */
+  Money[] prorate(Money total, Money[] results) {
+    return prorate(total, results, AllocationStrategy.ROUND_ROBIN);
+  }
+
+  /**
+   * As {@link #prorate(Money, Money[])}, but with the leftover allocated by {@code strategy}, which, unless it's
+   * {@link AllocationStrategy#ROUND_ROBIN}, needs the parts to fit in a long.
+   */
+  Money[] prorate(Money total, Money[] results, AllocationStrategy strategy) {
+    if (results.length != size()) {
+      throw new IllegalArgumentException("Expected " + size() + " results, not " + results.length);
+    }
+    if (results.length == 0) {
+      return results;
+    }
+    Currency currency = total.getCurrency();
+    if (weights != null && MinorUnits.fits(total.getAmount())) {
+      long[] shares = new long[weights.length];
+      try {
+        prorate(MinorUnits.of(total), shares, strategy);
+        for (int i = 0; i < shares.length; i++) {
+          results[i] = MinorUnits.toMoney(shares[i], currency);
+        }
+        return results;
+      } catch (ArithmeticException overflow) {
+        // only possible with weights of mixed signs, whose parts can exceed the total; redo it in BigIntegers
+      }
+    }
+    BigInteger[] shares = new BigInteger[results.length];
+    BigInteger[] remainders = strategy == AllocationStrategy.ROUND_ROBIN ? null : new BigInteger[results.length];
+    BigInteger leftover = bigShares(total.getAmount().unscaledValue(), shares, remainders);
+    if (remainders == null) {
+      ProrationKernel.distribute(leftover, shares);
+    } else {
+      allocate(strategy, shares, remainders, leftover);
+    }
+    for (int i = 0; i < shares.length; i++) {
+      results[i] = MinorUnits.toMoney(shares[i], currency);
+    }
+    return results;
+  }
+
+  long[] prorate(long total, long[] shares) {
+    return prorate(total, shares, AllocationStrategy.ROUND_ROBIN);
+  }
+
+  /**
+   * Fills {@code shares} with the parts of {@code total} minor units, or throws {@link ArithmeticException} if the
+   * weights, or a part, don't fit in a long.
+   */
+  long[] prorate(long total, long[] shares, AllocationStrategy strategy) {
+    if (weights == null) {
+      throw new ArithmeticException("Weights do not fit in a long");
+    }
+    if (shares.length != weights.length) {
+      throw new IllegalArgumentException("Expected " + weights.length + " results, not " + shares.length);
+    }
+    if (shares.length == 0) {
+      return shares;
+    }
+    if (denominator == 0) {
+      throw new ArithmeticException("Proportions sum to zero");
+    }
+    if (strategy == AllocationStrategy.ROUND_ROBIN) {
+      ProrationKernel.distribute(Math.subtractExact(total, shares(total, shares, null, 0, shares.length)), shares);
+      return shares;
+    }
+    long[] remainders = new long[shares.length];
+    long leftover = Math.subtractExact(total, shares(total, shares, remainders, 0, shares.length));
+    allocate(strategy, shares, remainders, leftover);
+    return shares;
+  }
+
+  /**
+   * As {@link #prorate(Money, Money[], AllocationStrategy)}, but with the shares, and the results, computed in
+   * fork-join chunks. The arithmetic per part is the same, and the leftover is allocated over all the parts at once, so
+   * the results are identical whatever the parallelism.
+   */
+  Money[] parallelProrate(Money total, Money[] results, AllocationStrategy strategy) {
+    if (results.length < MoneySummation.PARALLEL_THRESHOLD || weights == null || !MinorUnits.fits(total.getAmount())) {
+      return prorate(total, results, strategy);
+    }
+    if (results.length != weights.length) {
+      throw new IllegalArgumentException("Expected " + weights.length + " results, not " + results.length);
+    }
+    if (denominator == 0) {
+      throw new ArithmeticException("Proportions sum to zero");
+    }
+    long units = MinorUnits.of(total);
+    long[] shares = new long[weights.length];
+    long[] remainders = strategy == AllocationStrategy.ROUND_ROBIN ? null : new long[weights.length];
+    try {
+      SharesTask task = new SharesTask(this, units, shares, remainders, 0, shares.length);
+      long leftover = Math.subtractExact(units, ForkJoinPool.commonPool().invoke(task));
+      if (remainders != null) {
+        allocate(strategy, shares, remainders, leftover);
+        leftover = 0;
+      }
+      ForkJoinPool.commonPool().invoke(new ResultsTask(shares, leftover, total.getCurrency(), results, 0, shares.length));
+      return results;
+    } catch (ArithmeticException overflow) {
+      // as in prorate, only possible with weights of mixed signs; it overwrites any results already filled in
+      return prorate(total, results, strategy);
+    }
+  }
+
+  /** Runs {@code strategy} with the remainders over a positive denominator. */
+  private void allocate(AllocationStrategy strategy, long[] shares, long[] remainders, long leftover) {
+    if (denominator == Long.MIN_VALUE) {
+      throw new ArithmeticException("Denominator does not fit in a positive long");
+    }
+    if (denominator < 0) {
+      for (int i = 0; i < remainders.length; i++) {
+        remainders[i] = -remainders[i];
+      }
+    }
+    ProrationKernel.allocate(strategy, shares, remainders, Math.abs(denominator), leftover);
+  }
+
+  /**
+   * Fills {@code shares} from {@code from} to {@code to} with the truncated shares of {@code total}, and
+   * {@code remainders}, if it isn't null, with what each share dropped, over the denominator.
+   *
+   * @return the sum of those shares
+   */
+  private long shares(long total, long[] shares, long[] remainders, int from, int to) {
+    // any weight within the limit can be multiplied by the total without overflowing
+    long limit = total == 0 ? Long.MAX_VALUE : Long.MAX_VALUE / Math.abs(total);
+    long allocated = 0;
+    for (int i = from; i < to; i++) {
+      long weight = weights[i];
+      if (weight <= limit && weight >= -limit) {
+        long product = total * weight;
+        shares[i] = product / denominator;
+        if (remainders != null) {
+          remainders[i] = product % denominator;
+        }
+      } else {
+        BigInteger[] division = BigInteger
+          .valueOf(total)
+          .multiply(BigInteger.valueOf(weight))
+          .divideAndRemainder(BigInteger.valueOf(denominator));
+        shares[i] = division[0].longValueExact();
+        if (remainders != null) {
+          remainders[i] = division[1].longValue();
+        }
+      }
+      allocated = Math.addExact(allocated, shares[i]);
+    }
+    return allocated;
+  }
+
+  private BigInteger bigShares(BigInteger total, BigInteger[] shares, BigInteger[] remainders) {
+    BigInteger[] weights = bigWeights == null ? ProrationKernel.toBigIntegers(this.weights) : bigWeights;
+    BigInteger denominator = bigDenominator == null ? BigInteger.valueOf(this.denominator) : bigDenominator;
+    if (denominator.signum() == 0) {
+      throw new ArithmeticException("Proportions sum to zero");
+    }
+    BigInteger leftover = total;
+    for (int i = 0; i < weights.length; i++) {
+      BigInteger[] division = total.multiply(weights[i]).divideAndRemainder(denominator);
+      shares[i] = division[0];
+      if (remainders != null) {
+        remainders[i] = division[1];
+      }
+      leftover = leftover.subtract(shares[i]);
+    }
+    return leftover;
+  }
+
+  /**
+   * Runs {@code strategy} over parts and remainders computed in BigIntegers. Remainders over a denominator too big for
+   * a long are scaled down by a power of two, which keeps their order, bar differences finer than one part in 2^62.
+   */
+  private void allocate(AllocationStrategy strategy, BigInteger[] shares, BigInteger[] remainders, BigInteger leftover) {
+    BigInteger denominator = bigDenominator == null ? BigInteger.valueOf(this.denominator) : bigDenominator;
+    boolean negative = denominator.signum() < 0;
+    denominator = denominator.abs();
+    int shift = Math.max(denominator.bitLength() - 62, 0);
+    long[] longShares = new long[shares.length];
+    long[] longRemainders = new long[shares.length];
+    for (int i = 0; i < shares.length; i++) {
+      longShares[i] = shares[i].longValueExact();
+      BigInteger remainder = negative ? remainders[i].negate() : remainders[i];
+      longRemainders[i] = remainder.shiftRight(shift).longValue();
+    }
+    long longDenominator = denominator.shiftRight(shift).longValue();
+    ProrationKernel.allocate(strategy, longShares, longRemainders, longDenominator, leftover.longValueExact());
+    for (int i = 0; i < shares.length; i++) {
+      shares[i] = BigInteger.valueOf(longShares[i]);
+    }
+  }
+
+  private static void allocate(AllocationStrategy strategy, long[] shares, long[] remainders, long denominator, long leftover) {
+    long expected = leftover;
+    for (int i = 0; i < shares.length; i++) {
+      expected = Math.addExact(expected, shares[i]);
+    }
+    strategy.allocate(shares, remainders, denominator, leftover);
+    long allocated = 0;
+    for (int i = 0; i < shares.length; i++) {
+      allocated = Math.addExact(allocated, shares[i]);
+    }
+    if (allocated != expected) {
+      throw new IllegalStateException(strategy + " did not allocate exactly " + leftover + " minor units");
+    }
+  }
+
+  /** Spreads {@code leftover} minor units over {@code shares} as evenly as possible, favouring the first shares. */
+  static void distribute(long leftover, long[] shares) {
+    if (leftover == 0) {
+      return;
+    }
+    long each = leftover / shares.length;
+    int extra = (int) Math.abs(leftover % shares.length);
+    long step = Long.signum(leftover);
+    for (int i = 0; i < shares.length; i++) {
+      shares[i] = Math.addExact(shares[i], i < extra ? each + step : each);
+    }
+  }
+
+  static void distribute(BigInteger leftover, BigInteger[] shares) {
+    if (leftover.signum() == 0) {
+      return;
+    }
+    BigInteger[] division = leftover.divideAndRemainder(BigInteger.valueOf(shares.length));
+    int extra = division[1].abs().intValue();
+    BigInteger more = division[0].add(BigInteger.valueOf(leftover.signum()));
+    for (int i = 0; i < shares.length; i++) {
+      shares[i] = shares[i].add(i < extra ? more : division[0]);
+    }
+  }
+
+  private static class SharesTask extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+    private final ProrationKernel kernel;
+    private final long total;
+    private final long[] shares;
+    private final long[] remainders;
+    private final int from;
+    private final int to;
+
+    private SharesTask(ProrationKernel kernel, long total, long[] shares, long[] remainders, int from, int to) {
+      this.kernel = kernel;
+      this.total = total;
+      this.shares = shares;
+      this.remainders = remainders;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Long compute() {
+      if (to - from <= MoneySummation.PARALLEL_THRESHOLD) {
+        return kernel.shares(total, shares, remainders, from, to);
+      }
+      int middle = (from + to) >>> 1;
+      SharesTask left = new SharesTask(kernel, total, shares, remainders, from, middle);
+      left.fork();
+      long right = new SharesTask(kernel, total, shares, remainders, middle, to).compute();
+      return Math.addExact(left.join(), right);
+    }
+  }
+
+  /** Turns shares into Money, adding the leftover as {@link #distribute(long, long[])} would. */
+  private static class ResultsTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final long[] shares;
+    private final long leftover;
+    private final Currency currency;
+    private final Money[] results;
+    private final int from;
+    private final int to;
+
+    private ResultsTask(long[] shares, long leftover, Currency currency, Money[] results, int from, int to) {
+      this.shares = shares;
+      this.leftover = leftover;
+      this.currency = currency;
+      this.results = results;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= MoneySummation.PARALLEL_THRESHOLD) {
+        long each = leftover / shares.length;
+        int extra = (int) Math.abs(leftover % shares.length);
+        long step = Long.signum(leftover);
+        for (int i = from; i < to; i++) {
+          results[i] = MinorUnits.toMoney(Math.addExact(shares[i], i < extra ? each + step : each), currency);
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      ResultsTask.invokeAll(
+        new ResultsTask(shares, leftover, currency, results, from, middle),
+        new ResultsTask(shares, leftover, currency, results, middle, to));
+    }
+  }
+
+  private static BigInteger[] toBigIntegers(long[] values) {
+    BigInteger[] result = new BigInteger[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = BigInteger.valueOf(values[i]);
+    }
+    return result;
+  }
+
+}
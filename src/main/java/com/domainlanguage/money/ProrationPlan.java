@@ -0,0 +1,86 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rational;
+
+/**
+ * A set of proration weights compiled once, for prorating many totals over the same weights, e.g. allocation keys per
+ * department. The weights are brought to integers over a common denominator and reduced when the plan is made, so
+ * each total only costs one pass of long arithmetic. Results are identical to the corresponding
+ * {@link Proration#proratedOver(Money, long[], AllocationStrategy)} overloads. Plans are immutable and thread safe.
+ */
+public class ProrationPlan {
+
+  private final ProrationKernel kernel;
+  private final AllocationStrategy strategy;
+
+  public static ProrationPlan of(long[] proportions) {
+    return new ProrationPlan(ProrationKernel.of(proportions));
+  }
+
+  public static ProrationPlan of(BigDecimal[] proportions) {
+    return new ProrationPlan(ProrationKernel.of(proportions));
+  }
+
+  public static ProrationPlan of(Ratio[] ratios) {
+    return ProrationPlan.of(Arrays.asList(ratios));
+  }
+
+  public static ProrationPlan of(List<Ratio> ratios) {
+    return new ProrationPlan(ProrationKernel.of(ratios));
+  }
+
+  public static ProrationPlan of(Rational[] rationals) {
+    return new ProrationPlan(ProrationKernel.of(rationals));
+  }
+
+  private ProrationPlan(ProrationKernel kernel) {
+    // reducing also copies the weights, so the caller's array can't change the plan
+    this(kernel.reduced(), AllocationStrategy.ROUND_ROBIN);
+  }
+
+  private ProrationPlan(ProrationKernel kernel, AllocationStrategy strategy) {
+    this.kernel = kernel;
+    this.strategy = strategy;
+  }
+
+  /** @return a plan over the same weights that gives out leftover minor units per {@code strategy} */
+  public ProrationPlan using(AllocationStrategy strategy) {
+    return new ProrationPlan(kernel, strategy);
+  }
+
+  public AllocationStrategy getStrategy() {
+    return strategy;
+  }
+
+  /** @return how many parts each total is split into */
+  public int size() {
+    return kernel.size();
+  }
+
+  public Money[] prorate(Money total) {
+    return kernel.prorate(total, new Money[kernel.size()], strategy);
+  }
+
+  public Money[] prorate(Money total, Money[] results) {
+    return kernel.prorate(total, results, strategy);
+  }
+
+  /** As {@link #prorate(Money, Money[])}, but computed in fork-join chunks for very many parts; the results are identical. */
+  public Money[] parallelProrate(Money total, Money[] results) {
+    return kernel.parallelProrate(total, results, strategy);
+  }
+
+  /**
+   * Prorates {@code total} minor units into {@code results}, allocating nothing; throws {@link ArithmeticException} if
+   * a part doesn't fit in a long.
+   */
+  public long[] prorate(long total, long[] results) {
+    return kernel.prorate(total, results, strategy);
+  }
+
+}
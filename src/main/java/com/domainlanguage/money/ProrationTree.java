@@ -0,0 +1,150 @@
+package com.domainlanguage.money;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Allocates a total down a tree of weights, e.g. from a company to regions, departments and cost centers: each node's
+ * allocation is prorated over its children by their weights, so every subtree sums exactly to its parent's
+ * allocation.
+ *
+ * Changing a weight, or adding a child, only marks the affected node; {@link #reallocate()} then recomputes just the
+ * marked nodes and the subtrees whose allocations actually changed, leaving the rest of the tree as it was.
+ */
+public class ProrationTree<K> {
+
+  private final Node<K> root;
+  private final AllocationStrategy strategy;
+
+  public ProrationTree(K rootKey) {
+    this(rootKey, AllocationStrategy.ROUND_ROBIN);
+  }
+
+  public ProrationTree(K rootKey, AllocationStrategy strategy) {
+    root = new Node<K>(rootKey, 1, null);
+    this.strategy = strategy;
+  }
+
+  public Node<K> getRoot() {
+    return root;
+  }
+
+  public AllocationStrategy getStrategy() {
+    return strategy;
+  }
+
+  /** Allocates {@code total} over the whole tree in one traversal. */
+  public void allocate(Money total) {
+    if (!total.equals(root.allocation)) {
+      root.allocation = total;
+      root.markDirty();
+    }
+    reallocate();
+  }
+
+  /** Recomputes the allocations under nodes that changed since the last allocation. */
+  public void reallocate() {
+    if (root.allocation == null) {
+      throw new IllegalStateException("Nothing has been allocated yet");
+    }
+    reallocate(root);
+  }
+
+  private void reallocate(Node<K> node) {
+    if (node.dirty && !node.children.isEmpty()) {
+      long[] weights = new long[node.children.size()];
+      for (int i = 0; i < weights.length; i++) {
+        weights[i] = node.children.get(i).weight;
+      }
+      Money[] parts = ProrationKernel.of(weights).prorate(node.allocation, new Money[weights.length], strategy);
+      for (int i = 0; i < parts.length; i++) {
+        Node<K> child = node.children.get(i);
+        if (!parts[i].equals(child.allocation)) {
+          child.allocation = parts[i];
+          child.dirty = true;
+        }
+      }
+    }
+    boolean below = node.dirty || node.dirtyBelow;
+    node.dirty = false;
+    node.dirtyBelow = false;
+    if (below) {
+      for (Node<K> child : node.children) {
+        reallocate(child);
+      }
+    }
+  }
+
+  public static class Node<K> {
+    private final K key;
+    private final Node<K> parent;
+    private final List<Node<K>> children = new ArrayList<Node<K>>();
+    private long weight;
+    private Money allocation;
+    // whether the split over this node's children is stale, and whether any descendant's is
+    private boolean dirty;
+    private boolean dirtyBelow;
+
+    private Node(K key, long weight, Node<K> parent) {
+      this.key = key;
+      this.weight = weight;
+      this.parent = parent;
+    }
+
+    public Node<K> addChild(K key, long weight) {
+      Node<K> child = new Node<K>(key, weight, this);
+      children.add(child);
+      markDirty();
+      return child;
+    }
+
+    public K getKey() {
+      return key;
+    }
+
+    public Node<K> getParent() {
+      return parent;
+    }
+
+    public List<Node<K>> getChildren() {
+      return Collections.unmodifiableList(children);
+    }
+
+    public boolean isLeaf() {
+      return children.isEmpty();
+    }
+
+    public long getWeight() {
+      return weight;
+    }
+
+    public void setWeight(long weight) {
+      if (parent == null) {
+        throw new IllegalStateException("The root has no weight among siblings");
+      }
+      if (weight != this.weight) {
+        this.weight = weight;
+        parent.markDirty();
+      }
+    }
+
+    /** @return this node's share of the total as of the last (re)allocation, or null if it hasn't had one */
+    public Money getAllocation() {
+      return allocation;
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + allocation;
+    }
+
+    private void markDirty() {
+      dirty = true;
+      for (Node<K> ancestor = parent; ancestor != null && !ancestor.dirtyBelow; ancestor = ancestor.parent) {
+        ancestor.dirtyBelow = true;
+      }
+    }
+  }
+
+}
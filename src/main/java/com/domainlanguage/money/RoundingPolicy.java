@@ -0,0 +1,175 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.domainlanguage.base.Rounding;
+
+/**
+ * How to round an amount of money: a {@link RoundingMode}, and optionally, per currency, an increment coarser than
+ * the currency's minor unit to round to, e.g. CHF 0.05 for cash. The typed alternative to passing {@link Rounding}
+ * ints around.
+ *
+ * Amounts held as a long of minor units are rounded with long division, without going through BigDecimal. Policies
+ * are immutable.
+ */
+public final class RoundingPolicy {
+
+  private static final RoundingPolicy[] PLAIN = new RoundingPolicy[RoundingMode.values().length];
+
+  static {
+    for (RoundingMode mode : RoundingMode.values()) {
+      PLAIN[mode.ordinal()] = new RoundingPolicy(mode, Collections.<Currency, Long> emptyMap());
+    }
+  }
+
+  public static final RoundingPolicy HALF_EVEN = RoundingPolicy.of(RoundingMode.HALF_EVEN);
+  public static final RoundingPolicy HALF_UP = RoundingPolicy.of(RoundingMode.HALF_UP);
+  public static final RoundingPolicy DOWN = RoundingPolicy.of(RoundingMode.DOWN);
+
+  private final RoundingMode mode;
+  private final int roundingRule;
+  // in minor units, only for currencies rounded to more than one
+  private final Map<Currency, Long> increments;
+
+  public static RoundingPolicy of(RoundingMode mode) {
+    return PLAIN[mode.ordinal()];
+  }
+
+  /** @param roundingRule one of the {@link Rounding} constants */
+  public static RoundingPolicy of(int roundingRule) {
+    return RoundingPolicy.of(RoundingMode.valueOf(roundingRule));
+  }
+
+  /** @return a policy rounding Swiss francs to 0.05, as cash is, and other currencies to their minor unit */
+  public static RoundingPolicy cash(RoundingMode mode) {
+    return RoundingPolicy.of(mode).withIncrement(Currency.getInstance("CHF"), new BigDecimal("0.05"));
+  }
+
+  private RoundingPolicy(RoundingMode mode, Map<Currency, Long> increments) {
+    this.mode = mode;
+    this.roundingRule = RoundingPolicy.roundingRule(mode);
+    this.increments = increments;
+  }
+
+  /**
+   * @return a copy of this policy that rounds amounts of {@code currency} to multiples of {@code increment}, which must
+   *         be a positive whole number of the currency's minor units
+   */
+  public RoundingPolicy withIncrement(Currency currency, BigDecimal increment) {
+    long units;
+    try {
+      units = increment.movePointRight(currency.getDefaultFractionDigits()).longValueExact();
+    } catch (ArithmeticException notWhole) {
+      throw new IllegalArgumentException(increment + " is not a whole number of " + currency + " minor units");
+    }
+    if (units <= 0) {
+      throw new IllegalArgumentException("Increment " + increment + " is not positive");
+    }
+    Map<Currency, Long> copy = new HashMap<Currency, Long>(increments);
+    if (units == 1) {
+      copy.remove(currency);
+    } else {
+      copy.put(currency, units);
+    }
+    return new RoundingPolicy(mode, Collections.unmodifiableMap(copy));
+  }
+
+  public RoundingMode getMode() {
+    return mode;
+  }
+
+  /** @return the smallest amount of {@code currency} this policy rounds to */
+  public BigDecimal getIncrement(Currency currency) {
+    return BigDecimal.valueOf(incrementUnits(currency), currency.getDefaultFractionDigits());
+  }
+
+  /** @return {@code amount}, at the currency's scale, rounded to a multiple of the currency's increment */
+  public BigDecimal round(BigDecimal amount, Currency currency) {
+    int digits = currency.getDefaultFractionDigits();
+    long increment = incrementUnits(currency);
+    if (increment == 1) {
+      return amount.setScale(digits, mode);
+    }
+    BigDecimal step = BigDecimal.valueOf(increment, digits);
+    return amount.divide(step, 0, mode).multiply(step).setScale(digits);
+  }
+
+  /** @return {@code minorUnits} rounded to a multiple of the currency's increment */
+  long round(long minorUnits, Currency currency) {
+    long increment = incrementUnits(currency);
+    return increment == 1 ? minorUnits : divide(minorUnits, 1, currency);
+  }
+
+  /**
+   * @return {@code dividend / divisor} minor units rounded to a multiple of the currency's increment, in long
+   *         arithmetic; throws {@link ArithmeticException} if that overflows
+   */
+  long divide(long dividend, long divisor, Currency currency) {
+    long increment = incrementUnits(currency);
+    if (increment == 1) {
+      return MinorUnits.divide(dividend, divisor, roundingRule);
+    }
+    return Math.multiplyExact(MinorUnits.divide(dividend, Math.multiplyExact(divisor, increment), roundingRule), increment);
+  }
+
+  BigInteger divide(BigInteger dividend, BigInteger divisor, Currency currency) {
+    BigInteger step = divisor.multiply(BigInteger.valueOf(incrementUnits(currency)));
+    BigInteger multiples = new BigDecimal(dividend).divide(new BigDecimal(step), 0, mode).toBigIntegerExact();
+    return multiples.multiply(BigInteger.valueOf(incrementUnits(currency)));
+  }
+
+  long incrementUnits(Currency currency) {
+    if (increments.isEmpty()) {
+      return 1;
+    }
+    Long increment = increments.get(currency);
+    return increment == null ? 1 : increment.longValue();
+  }
+
+  @Override
+  public boolean equals(Object anObject) {
+    if (anObject instanceof RoundingPolicy) {
+      RoundingPolicy other = (RoundingPolicy) anObject;
+      return mode == other.mode && increments.equals(other.increments);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return mode.hashCode() ^ increments.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return increments.isEmpty() ? mode.toString() : mode + " " + increments;
+  }
+
+  private static int roundingRule(RoundingMode mode) {
+    switch (mode) {
+    case UP:
+      return Rounding.UP;
+    case DOWN:
+      return Rounding.DOWN;
+    case CEILING:
+      return Rounding.CEILING;
+    case FLOOR:
+      return Rounding.FLOOR;
+    case HALF_UP:
+      return Rounding.HALF_UP;
+    case HALF_DOWN:
+      return Rounding.HALF_DOWN;
+    case HALF_EVEN:
+      return Rounding.HALF_EVEN;
+    default:
+      return Rounding.UNNECESSARY;
+    }
+  }
+
+}
@@ -0,0 +1,109 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * Prorates a total over weights that arrive one at a time, e.g. rows streamed from disk, in constant memory. The sum
+ * of the weights has to be known up front, from a first pass over them; {@link #prorate(Money, Supplier, Consumer)}
+ * makes both passes.
+ *
+ * Each part is the difference between successive cumulative shares, {@code total * (w1 + ... + wi) / sum} rounded
+ * toward zero, so every part is within one minor unit of its exact share, and once weights summing to {@code sum}
+ * have been streamed, the parts sum to exactly the total. The leftover minor units land on different parts than they
+ * do with {@link Proration}, which needs all the weights at once to hand them out from the front.
+ */
+public class StreamingProration {
+
+  private final Currency currency;
+  private final long total;
+  private final BigInteger bigTotal;
+  private final long weightSum;
+  private final BigDecimal bigWeightSum;
+  // the state stays in longs until a weight, or a product, doesn't fit
+  private boolean fast;
+  private long cumulative;
+  private long allocated;
+  private BigDecimal bigCumulative;
+  private BigInteger bigAllocated;
+
+  /** Prorates {@code total} over a stream of long weights, in two passes; {@code weights} must supply the same ones. */
+  public static void prorate(Money total, Supplier<LongStream> weights, Consumer<? super Money> parts) {
+    long weightSum = weights.get().reduce(0, Math::addExact);
+    StreamingProration proration = new StreamingProration(total, weightSum);
+    weights.get().forEachOrdered(weight -> parts.accept(proration.next(weight)));
+    if (!proration.isComplete()) {
+      throw new IllegalStateException("Weights differ between passes");
+    }
+  }
+
+  public StreamingProration(Money total, long weightSum) {
+    this(total, BigDecimal.valueOf(weightSum));
+  }
+
+  public StreamingProration(Money total, BigDecimal weightSum) {
+    if (weightSum.signum() == 0) {
+      throw new ArithmeticException("Weights sum to zero");
+    }
+    currency = total.getCurrency();
+    bigTotal = total.getAmount().unscaledValue();
+    bigWeightSum = weightSum;
+    fast = bigTotal.bitLength() <= 63 && weightSum.scale() <= 0 && weightSum.toBigInteger().bitLength() <= 63;
+    this.total = fast ? bigTotal.longValue() : 0;
+    this.weightSum = fast ? weightSum.longValueExact() : 0;
+    bigCumulative = BigDecimal.ZERO;
+    bigAllocated = BigInteger.ZERO;
+  }
+
+  /** @return the next part, for a weight of {@code weight} */
+  public Money next(long weight) {
+    if (fast) {
+      try {
+        long nextCumulative = Math.addExact(cumulative, weight);
+        long target = MinorUnits.multiplyDivide(total, nextCumulative, weightSum);
+        long part = Math.subtractExact(target, allocated);
+        cumulative = nextCumulative;
+        allocated = target;
+        return MinorUnits.toMoney(part, currency);
+      } catch (ArithmeticException overflow) {
+        switchToBigDecimals();
+      }
+    }
+    return nextExactly(BigDecimal.valueOf(weight));
+  }
+
+  public Money next(BigDecimal weight) {
+    if (fast) {
+      switchToBigDecimals();
+    }
+    return nextExactly(weight);
+  }
+
+  /** @return whether the weights streamed so far sum to the weight sum, so the parts sum to the total */
+  public boolean isComplete() {
+    return fast ? cumulative == weightSum : bigCumulative.compareTo(bigWeightSum) == 0;
+  }
+
+  private Money nextExactly(BigDecimal weight) {
+    bigCumulative = bigCumulative.add(weight);
+    BigInteger target = new BigDecimal(bigTotal)
+      .multiply(bigCumulative)
+      .divide(bigWeightSum, 0, RoundingMode.DOWN)
+      .toBigInteger();
+    BigInteger part = target.subtract(bigAllocated);
+    bigAllocated = target;
+    return MinorUnits.toMoney(part, currency);
+  }
+
+  private void switchToBigDecimals() {
+    fast = false;
+    bigCumulative = BigDecimal.valueOf(cumulative);
+    bigAllocated = BigInteger.valueOf(allocated);
+  }
+
+}
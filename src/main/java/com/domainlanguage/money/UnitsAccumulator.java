@@ -0,0 +1,67 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Currency;
+
+/** Sums minor units in a {@code long}, only spilling into a {@link BigInteger} if the long would overflow. */
+final class UnitsAccumulator {
+
+  private long units;
+  private BigInteger overflow;
+
+  void add(long value) {
+    long result = units + value;
+    if (((units ^ result) & (value ^ result)) < 0) {
+      spill();
+      units = value;
+    } else {
+      units = result;
+    }
+  }
+
+  void add(BigDecimal amount) {
+    if (MinorUnits.fits(amount)) {
+      add(MinorUnits.of(amount));
+    } else {
+      add(amount.unscaledValue());
+    }
+  }
+
+  void add(BigInteger value) {
+    overflow = overflow == null ? value : overflow.add(value);
+  }
+
+  void add(UnitsAccumulator other) {
+    add(other.units);
+    if (other.overflow != null) {
+      add(other.overflow);
+    }
+  }
+
+  boolean fitsInLong() {
+    return overflow == null;
+  }
+
+  /** Only valid when {@link #fitsInLong()}. */
+  long longValue() {
+    return units;
+  }
+
+  BigInteger bigIntegerValue() {
+    return overflow == null ? BigInteger.valueOf(units) : overflow.add(BigInteger.valueOf(units));
+  }
+
+  Money toMoney(Currency currency) {
+    if (overflow == null) {
+      return MinorUnits.toMoney(units, currency);
+    }
+    return MinorUnits.toMoney(bigIntegerValue(), currency);
+  }
+
+  private void spill() {
+    add(BigInteger.valueOf(units));
+    units = 0;
+  }
+
+}
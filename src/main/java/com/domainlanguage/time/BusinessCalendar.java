@@ -15,6 +15,8 @@ import com.domainlanguage.util.ImmutableIterator;
 
 public class BusinessCalendar {
 
+  private static final int[] WEEKDAYS_FROM_THURSDAY = { 0, 1, 2, 2, 2, 3, 4 };
+
   private final Set<CalendarDate> holidays;
 
   /** Should be rewritten for each particular organization */
@@ -30,14 +32,56 @@ public class BusinessCalendar {
     holidays.addAll(days);
   }
 
+  /**
+   * Counts the weekdays from the start through the end of {@code interval} arithmetically, less the holidays among
+   * them, if {@link #isStandardWeekdayCalendar()}, or otherwise one day at a time.
+   */
   public int getElapsedBusinessDays(CalendarInterval interval) {
-    int tally = 0;
-    Iterator<CalendarDate> iterator = businessDaysOnly(interval.daysIterator());
-    while (iterator.hasNext()) {
-      iterator.next();
-      tally += 1;
+    if (!isStandardWeekdayCalendar()) {
+      int tally = 0;
+      Iterator<CalendarDate> iterator = businessDaysOnly(interval.daysIterator());
+      while (iterator.hasNext()) {
+        iterator.next();
+        tally += 1;
+      }
+      return tally;
+    }
+    long first = interval.start().toEpochDay();
+    long last = interval.end().toEpochDay();
+    if (last < first) {
+      return 0;
     }
-    return tally;
+    long tally = BusinessCalendar.weekdaysBefore(last + 1) - BusinessCalendar.weekdaysBefore(first);
+    for (CalendarDate holiday : holidays) {
+      long day = holiday.toEpochDay();
+      if (day >= first && day <= last && !BusinessCalendar.isWeekend(day)) {
+        tally--;
+      }
+    }
+    return (int) tally;
+  }
+
+  /**
+   * @return whether the business days are just the weekdays that aren't among the holidays added, so they can be
+   *         counted arithmetically. Only true here of this class itself, since a subclass may override
+   *         {@link #isBusinessDay(CalendarDate)}, {@link #isWeekend(CalendarDate)} or {@link #isHoliday(CalendarDate)};
+   *         a subclass that doesn't may override this to return true.
+   */
+  protected boolean isStandardWeekdayCalendar() {
+    return getClass() == BusinessCalendar.class;
+  }
+
+  /** @return the number of weekdays between 1970-01-01, a Thursday, and {@code epochDay}, negative before it */
+  private static long weekdaysBefore(long epochDay) {
+    long weeks = Math.floorDiv(epochDay, 7);
+    int days = (int) Math.floorMod(epochDay, 7);
+    // weekdays among the first 0 to 6 days of a week starting on a Thursday
+    return weeks * 5 + WEEKDAYS_FROM_THURSDAY[days];
+  }
+
+  private static boolean isWeekend(long epochDay) {
+    int fromThursday = (int) Math.floorMod(epochDay, 7);
+    return fromThursday == 2 || fromThursday == 3;
   }
 
   /*
@@ -164,7 +164,8 @@ public class CalendarDate implements Comparable<CalendarDate>, Serializable {
 
   @Override
   public int hashCode() {
-    return year * month * day;
+    // distinct for every date of years up to 2^22, where year * month * day collided for many
+    return (year << 9) | (month << 5) | day;
   }
 
   public CalendarDate start() {
@@ -207,6 +208,33 @@ public class CalendarDate implements Comparable<CalendarDate>, Serializable {
     return CalendarInterval.year(year);
   }
 
+  /**
+   * @return the number of days from 1970-01-01 to this date, in the proleptic Gregorian calendar, computed without a
+   *         java.util.Calendar
+   */
+  public long toEpochDay() {
+    long y = month <= 2 ? year - 1 : year;
+    long era = Math.floorDiv(y, 400);
+    long yearOfEra = y - era * 400;
+    long dayOfYear = (153 * ((month + 9) % 12) + 2) / 5 + day - 1; // counted from March 1st
+    long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097 + dayOfEra - 719468;
+  }
+
+  /** The inverse of {@link #toEpochDay()}. */
+  public static CalendarDate fromEpochDay(long epochDay) {
+    long shifted = epochDay + 719468;
+    long era = Math.floorDiv(shifted, 146097);
+    long dayOfEra = shifted - era * 146097;
+    long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    long shiftedMonth = (5 * dayOfYear + 2) / 153;
+    int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+    int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+    int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+    return CalendarDate.from(year, month, day);
+  }
+
   public CalendarDate plusDays(int increment) {
     Calendar calendar = asJavaCalendarUniversalZoneMidnight();
     calendar.add(Calendar.DATE, increment);
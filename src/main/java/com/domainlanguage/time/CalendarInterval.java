@@ -27,6 +27,10 @@ public abstract class CalendarInterval extends Interval<CalendarDate> implements
     return ConcreteCalendarInterval.from(startDate, endDate);
   }
 
+  public static CalendarInterval over(CalendarDate start, boolean closedStart, CalendarDate end, boolean closedEnd) {
+    return ConcreteCalendarInterval.from(start, closedStart, end, closedEnd);
+  }
+
   public static CalendarInterval month(int year, int month) {
     CalendarDate startDate = CalendarDate.date(year, month, 1);
     CalendarDate endDate = startDate.plusMonths(1).plusDays(-1);
@@ -88,23 +92,9 @@ public abstract class CalendarInterval extends Interval<CalendarDate> implements
   }
 
   public int lengthInDaysInt() {
-    Calendar calStart;
-    if (includesLowerLimit()) {
-      calStart = start().asJavaCalendarUniversalZoneMidnight();
-    } else {
-      calStart = start().plusDays(1).asJavaCalendarUniversalZoneMidnight();
-    }
-    Calendar calEnd;
-    if (includesUpperLimit()) {
-      calEnd = end().plusDays(1).asJavaCalendarUniversalZoneMidnight();
-    } else {
-      calEnd = end().asJavaCalendarUniversalZoneMidnight();
-    }
-    long diffMillis = calEnd.getTimeInMillis() - calStart.getTimeInMillis();
-    if (diffMillis < 0) {
-      return 0;
-    }
-    return (int) (diffMillis / TimeUnitConversionFactors.millisecondsPerDay);
+    long first = includesLowerLimit() ? start().toEpochDay() : start().toEpochDay() + 1;
+    long afterLast = includesUpperLimit() ? end().toEpochDay() + 1 : end().toEpochDay();
+    return (int) Math.max(0, afterLast - first);
   }
 
   public Iterator<CalendarInterval> subintervalIterator(Duration subintervalLength) {
@@ -10,6 +10,7 @@ import java.io.Serializable;
 import java.util.Calendar;
 
 import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rational;
 
 public class Duration implements Comparable<Duration>, Serializable {
 
@@ -82,6 +83,14 @@ public class Duration implements Comparable<Duration>, Serializable {
     this.unit = unit;
   }
 
+  public long getQuantity() {
+    return quantity;
+  }
+
+  public TimeUnit getUnit() {
+    return unit;
+  }
+
   public Duration plus(Duration other) {
     assertConvertible(other);
     long newQuantity = inBaseUnits() + other.inBaseUnits();
@@ -136,6 +145,12 @@ public class Duration implements Comparable<Duration>, Serializable {
     return Ratio.of(inBaseUnits(), divisor.inBaseUnits());
   }
 
+  /** As {@link #dividedBy(Duration)}, but reduced, and in longs rather than BigDecimals. */
+  public Rational rationalDividedBy(Duration divisor) {
+    assertConvertible(divisor);
+    return Rational.of(inBaseUnits(), divisor.inBaseUnits());
+  }
+
   public TimeUnit normalizedUnit() {
     TimeUnit[] units = unit.descendingUnits();
     long baseAmount = inBaseUnits();
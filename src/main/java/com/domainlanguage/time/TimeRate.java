@@ -37,6 +37,14 @@ public class TimeRate {
     return duration.dividedBy(unit).times(quantity).decimalValue(scale, roundRule);
   }
 
+  public BigDecimal getQuantity() {
+    return quantity;
+  }
+
+  public Duration getUnit() {
+    return unit;
+  }
+
   public int scale() {
     return quantity.scale();
   }
@@ -0,0 +1,81 @@
+package com.domainlanguage.base;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+public class RationalTest extends TestCase {
+
+  public void testReduced() {
+    Assert.assertEquals(Rational.of(1, 2), Rational.of(2, 4));
+    Assert.assertEquals(Rational.of(1, 2).hashCode(), Rational.of(2, 4).hashCode());
+    Assert.assertEquals(Rational.of(-1, 2), Rational.of(1, -2));
+    Assert.assertEquals(Rational.ZERO, Rational.of(0, -7));
+    Assert.assertEquals("-3/4", Rational.of(6, -8).toString());
+  }
+
+  public void testArithmetic() {
+    Rational half = Rational.of(1, 2);
+    Rational third = Rational.of(1, 3);
+    Assert.assertEquals(Rational.of(5, 6), half.plus(third));
+    Assert.assertEquals(Rational.of(1, 6), half.minus(third));
+    Assert.assertEquals(Rational.of(1, 6), half.times(third));
+    Assert.assertEquals(Rational.of(3, 2), half.dividedBy(third));
+    Assert.assertEquals(Rational.of(-2), half.reciprocal().negate());
+  }
+
+  public void testChainedProductsStaySmall() {
+    Rational product = Rational.ONE;
+    for (int i = 1; i < 1000; i++) {
+      product = product.times(Rational.of(i + 1, i));
+    }
+    Assert.assertEquals(Rational.of(1000), product);
+    Assert.assertTrue(product.fitsInLongs());
+  }
+
+  public void testCompareTo() {
+    Assert.assertTrue(Rational.of(1, 3).compareTo(Rational.of(1, 2)) < 0);
+    Assert.assertTrue(Rational.of(-1, 3).compareTo(Rational.of(-1, 2)) > 0);
+    Assert.assertEquals(0, Rational.of(2, 6).compareTo(Rational.of(1, 3)));
+    Rational nearlyOne = Rational.of(Long.MAX_VALUE - 1, Long.MAX_VALUE);
+    Rational closerToOne = Rational.of(Long.MAX_VALUE - 2, Long.MAX_VALUE - 1);
+    Assert.assertTrue(nearlyOne.compareTo(closerToOne) > 0);
+  }
+
+  public void testPromotesOnOverflow() {
+    Rational big = Rational.of(Long.MAX_VALUE).plus(Rational.ONE);
+    Assert.assertFalse(big.fitsInLongs());
+    Assert.assertEquals(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE), big.getNumerator());
+    Rational back = big.minus(Rational.ONE);
+    Assert.assertTrue(back.fitsInLongs());
+    Assert.assertEquals(Rational.of(Long.MAX_VALUE), back);
+    Assert.assertEquals(Rational.of(Long.MIN_VALUE).negate(), big);
+    Rational tiny = Rational.of(1, Long.MAX_VALUE).times(Rational.of(1, Long.MAX_VALUE));
+    Assert.assertEquals(BigInteger.valueOf(Long.MAX_VALUE).pow(2), tiny.getDenominator());
+    Assert.assertEquals(Rational.of(1, Long.MAX_VALUE), tiny.times(Rational.of(Long.MAX_VALUE)));
+  }
+
+  public void testDecimals() {
+    Assert.assertEquals(Rational.of(1, 4), Rational.of(new BigDecimal("0.25")));
+    Assert.assertEquals(Rational.of(1200), Rational.of(new BigDecimal("1.2E+3")));
+    Assert.assertEquals(new BigDecimal("0.333"), Rational.of(1, 3).decimalValue(3, Rounding.DOWN));
+    Assert.assertEquals(Rational.of(3, 2), Ratio.of(new BigDecimal("1.5"), new BigDecimal(1)).toRational());
+    Assert.assertEquals(Ratio.of(1, 2), Rational.of(2, 4).toRatio());
+  }
+
+  public void testZeroDenominator() {
+    try {
+      Rational.of(1, 0);
+      Assert.fail("zero denominator");
+    } catch (ArithmeticException correctResponse) {
+    }
+    try {
+      Rational.ZERO.reciprocal();
+      Assert.fail("zero denominator");
+    } catch (ArithmeticException correctResponse) {
+    }
+  }
+
+}
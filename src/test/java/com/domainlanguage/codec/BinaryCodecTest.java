@@ -0,0 +1,114 @@
+package com.domainlanguage.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Currency;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.domainlanguage.money.Money;
+import com.domainlanguage.time.CalendarDate;
+import com.domainlanguage.time.CalendarInterval;
+import com.domainlanguage.time.Duration;
+import com.domainlanguage.time.TimeInterval;
+import com.domainlanguage.time.TimePoint;
+
+public class BinaryCodecTest extends TestCase {
+
+  private final ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+  public void testMoney() {
+    Money[] monies = {
+      Money.dollars(0),
+      Money.dollars(-19.99),
+      Money.euros(1234.56),
+      Money.valueOf(5000, Currency.getInstance("JPY")),
+      Money.dollars(new BigDecimal("-123456789012345678901234.56")) };
+    for (Money money : monies) {
+      BinaryCodec.write(buffer, money);
+    }
+    buffer.flip();
+    for (Money money : monies) {
+      Assert.assertEquals(money, BinaryCodec.readMoney(buffer));
+    }
+    Assert.assertFalse(buffer.hasRemaining());
+  }
+
+  public void testMoneyIsCompact() {
+    BinaryCodec.write(buffer, Money.dollars(19.99));
+    // three bytes of currency code and flag, two of minor units
+    Assert.assertEquals(5, buffer.position());
+  }
+
+  public void testTimeValues() {
+    TimePoint point = TimePoint.atGMT(2024, 2, 29, 13, 45, 10, 5);
+    CalendarDate date = CalendarDate.from(2024, 12, 31);
+    Duration duration = Duration.hours(36);
+    TimeInterval interval = TimeInterval.over(point, point.plus(duration));
+    TimeInterval everFrom = TimeInterval.everFrom(point);
+    CalendarInterval month = CalendarInterval.month(2024, 2);
+    CalendarInterval everPreceding = CalendarInterval.everPreceding(date);
+    BinaryCodec.write(buffer, point);
+    BinaryCodec.write(buffer, date);
+    BinaryCodec.write(buffer, duration);
+    BinaryCodec.write(buffer, Duration.quarters(3));
+    BinaryCodec.write(buffer, interval);
+    BinaryCodec.write(buffer, everFrom);
+    BinaryCodec.write(buffer, month);
+    BinaryCodec.write(buffer, everPreceding);
+    buffer.flip();
+    Assert.assertEquals(point, BinaryCodec.readTimePoint(buffer));
+    Assert.assertEquals(date, BinaryCodec.readCalendarDate(buffer));
+    Assert.assertEquals(duration, BinaryCodec.readDuration(buffer));
+    Assert.assertEquals(Duration.quarters(3), BinaryCodec.readDuration(buffer));
+    Assert.assertEquals(interval, BinaryCodec.readTimeInterval(buffer));
+    Assert.assertEquals(everFrom, BinaryCodec.readTimeInterval(buffer));
+    Assert.assertEquals(month, BinaryCodec.readCalendarInterval(buffer));
+    Assert.assertEquals(everPreceding, BinaryCodec.readCalendarInterval(buffer));
+    Assert.assertFalse(buffer.hasRemaining());
+  }
+
+  public void testArrays() {
+    Money[] monies = {
+      Money.dollars(1.00),
+      Money.dollars(2.00),
+      Money.euros(3.00),
+      Money.euros(new BigDecimal("100000000000000000000.00")),
+      Money.euros(-4.00) };
+    TimePoint start = TimePoint.atGMT(2024, 1, 1, 0, 0);
+    TimePoint[] points = { start, start.plus(Duration.seconds(1)), start.minus(Duration.days(1)) };
+    CalendarDate[] dates = { CalendarDate.from(2024, 1, 31), CalendarDate.from(2024, 2, 1), CalendarDate.from(2023, 12, 31) };
+    BinaryCodec.write(buffer, monies);
+    BinaryCodec.write(buffer, points);
+    BinaryCodec.write(buffer, dates);
+    BinaryCodec.write(buffer, new Money[0]);
+    buffer.flip();
+    Assert.assertTrue(Arrays.equals(monies, BinaryCodec.readMonies(buffer)));
+    Assert.assertTrue(Arrays.equals(points, BinaryCodec.readTimePoints(buffer)));
+    Assert.assertTrue(Arrays.equals(dates, BinaryCodec.readCalendarDates(buffer)));
+    Assert.assertEquals(0, BinaryCodec.readMonies(buffer).length);
+  }
+
+  public void testDataStreamsMatchByteBuffers() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    Money[] monies = { Money.dollars(-0.01), Money.euros(7.50) };
+    BinaryCodec.write(out, monies);
+    BinaryCodec.write(out, CalendarDate.from(1999, 12, 31));
+    BinaryCodec.write(buffer, monies);
+    BinaryCodec.write(buffer, CalendarDate.from(1999, 12, 31));
+    Assert.assertTrue(Arrays.equals(Arrays.copyOf(buffer.array(), buffer.position()), bytes.toByteArray()));
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    Assert.assertTrue(Arrays.equals(monies, BinaryCodec.readMonies(in)));
+    Assert.assertEquals(CalendarDate.from(1999, 12, 31), BinaryCodec.readCalendarDate(in));
+  }
+
+}
@@ -0,0 +1,50 @@
+package com.domainlanguage.codec;
+
+import java.nio.ByteBuffer;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+public class VarintsTest extends TestCase {
+
+  public void testZigzag() {
+    Assert.assertEquals(0, Varints.zigzag(0));
+    Assert.assertEquals(1, Varints.zigzag(-1));
+    Assert.assertEquals(2, Varints.zigzag(1));
+    Assert.assertEquals(-1, Varints.zigzag(Long.MIN_VALUE));
+    Assert.assertEquals(Long.MIN_VALUE, Varints.unzigzag(-1));
+  }
+
+  public void testRoundTrip() {
+    long[] values = { 0, 1, -1, 63, -64, 64, 300, -300, Integer.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE };
+    ByteBuffer buffer = ByteBuffer.allocate(values.length * Varints.MAX_LONG_BYTES);
+    for (long value : values) {
+      Varints.writeSigned(buffer, value);
+    }
+    buffer.flip();
+    for (long value : values) {
+      Assert.assertEquals(value, Varints.readSigned(buffer));
+    }
+    Assert.assertFalse(buffer.hasRemaining());
+  }
+
+  public void testSize() {
+    Assert.assertEquals(1, Varints.sizeOfUnsigned(127));
+    Assert.assertEquals(2, Varints.sizeOfUnsigned(128));
+    Assert.assertEquals(Varints.MAX_LONG_BYTES, Varints.sizeOfUnsigned(-1));
+  }
+
+  public void testMalformed() {
+    ByteBuffer buffer = ByteBuffer.allocate(11);
+    for (int i = 0; i < 11; i++) {
+      buffer.put((byte) 0xFF);
+    }
+    buffer.flip();
+    try {
+      Varints.readUnsigned(buffer);
+      Assert.fail("more than ten bytes");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+  }
+
+}
@@ -0,0 +1,119 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.domainlanguage.base.Rational;
+import com.domainlanguage.base.Rounding;
+import com.domainlanguage.time.CalendarDate;
+import com.domainlanguage.time.CalendarInterval;
+import com.domainlanguage.time.Duration;
+
+public class AccrualScheduleTest extends TestCase {
+
+  private static final CalendarInterval FIRST_QUARTER_2004 = CalendarInterval.inclusive(2004, 1, 1, 2004, 3, 31);
+  private static final BigDecimal SIX_PERCENT = new BigDecimal("0.06");
+
+  public void testDayCountConventions() {
+    CalendarDate start = CalendarDate.date(2004, 1, 30);
+    CalendarDate end = CalendarDate.date(2004, 3, 31);
+    Assert.assertEquals(Rational.of(61, 360), DayCountConvention.ACTUAL_360.yearFraction(start, end));
+    Assert.assertEquals(Rational.of(61, 365), DayCountConvention.ACTUAL_365.yearFraction(start, end));
+    Assert.assertEquals(Rational.of(60, 360), DayCountConvention.THIRTY_360.yearFraction(start, end));
+  }
+
+  public void testSimpleInterest() {
+    Money principal = Money.dollars(1000.00);
+    Assert.assertEquals(
+      Money.dollars(15.17),
+      AccrualSchedule.simple(FIRST_QUARTER_2004, SIX_PERCENT, DayCountConvention.ACTUAL_360).interest(principal, Rounding.HALF_EVEN));
+    Assert.assertEquals(
+      Money.dollars(14.96),
+      AccrualSchedule.simple(FIRST_QUARTER_2004, SIX_PERCENT, DayCountConvention.ACTUAL_365).interest(principal, Rounding.HALF_EVEN));
+    AccrualSchedule thirty360 = AccrualSchedule.simple(FIRST_QUARTER_2004, SIX_PERCENT, DayCountConvention.THIRTY_360);
+    Assert.assertEquals(Money.dollars(15.00), thirty360.interest(principal, Rounding.UNNECESSARY));
+    Assert.assertEquals(Money.dollars(1015.00), thirty360.balance(principal, Rounding.UNNECESSARY));
+  }
+
+  public void testCompoundedMonthly() {
+    AccrualSchedule schedule = AccrualSchedule.compounded(
+      FIRST_QUARTER_2004,
+      new BigDecimal("0.12"),
+      DayCountConvention.ACTUAL_360,
+      Duration.months(1));
+    Assert.assertEquals(3, schedule.getPeriods().size());
+    Assert.assertEquals(CalendarInterval.inclusive(2004, 2, 1, 2004, 2, 29), schedule.getPeriods().get(1));
+    Money[] accruals = schedule.accruals(Money.dollars(1000.00), Rounding.HALF_EVEN);
+    Assert.assertEquals(Money.dollars(10.33), accruals[0]);
+    Assert.assertEquals(Money.dollars(9.77), accruals[1]);
+    Assert.assertEquals(Money.dollars(10.54), accruals[2]);
+    Assert.assertEquals(Money.dollars(30.64), schedule.interest(Money.dollars(1000.00), Rounding.HALF_EVEN));
+  }
+
+  public void testSimpleInterestEachPeriodIsOnThePrincipal() {
+    AccrualSchedule schedule = AccrualSchedule.simple(
+      FIRST_QUARTER_2004,
+      new BigDecimal("0.12"),
+      DayCountConvention.THIRTY_360,
+      Duration.months(1));
+    Money[] accruals = schedule.accruals(Money.dollars(1000.00), Rounding.UNNECESSARY);
+    for (int i = 0; i < accruals.length; i++) {
+      Assert.assertEquals(Money.dollars(10.00), accruals[i]);
+    }
+  }
+
+  /** Compounds daily at {@code annualRate} actual/365 the slow way, in BigDecimals rounded each period. */
+  private static Money compoundedActual365(AccrualSchedule schedule, BigDecimal annualRate, Money principal) {
+    BigDecimal balance = principal.getAmount();
+    BigDecimal interest = BigDecimal.ZERO;
+    for (CalendarInterval period : schedule.getPeriods()) {
+      BigDecimal accrued = balance
+        .multiply(annualRate)
+        .multiply(BigDecimal.valueOf(period.lengthInDaysInt()))
+        .divide(BigDecimal.valueOf(365), 2, BigDecimal.ROUND_HALF_UP);
+      interest = interest.add(accrued);
+      balance = balance.add(accrued);
+    }
+    return Money.valueOf(interest, principal.getCurrency());
+  }
+
+  public void testBatchesMatchBigDecimalArithmetic() {
+    // 1/10000 a day, so the products stay small and only the compounded balance outgrows a long
+    BigDecimal rate = new BigDecimal("0.0365");
+    AccrualSchedule schedule = AccrualSchedule.compounded(
+      CalendarInterval.inclusive(2004, 1, 1, 2005, 12, 31),
+      rate,
+      DayCountConvention.ACTUAL_365,
+      Duration.days(1));
+    Money[] principals = {
+      Money.dollars(0.01),
+      Money.dollars(-2500.00),
+      Money.dollars(123456.78),
+      // fits in a long of cents, but outgrows one partway through compounding
+      Money.dollars(new BigDecimal("90000000000000000.00")),
+      Money.dollars(new BigDecimal("92233720368547758.07")) };
+    Money[] interest = schedule.interest(principals, Rounding.HALF_UP);
+    MoneyColumn column = new MoneyColumn(Currency.getInstance("USD"));
+    for (int i = 0; i < principals.length; i++) {
+      column.add(principals[i]);
+    }
+    MoneyColumn columnInterest = schedule.interest(column, Rounding.HALF_UP);
+    for (int i = 0; i < principals.length; i++) {
+      Money expected = AccrualScheduleTest.compoundedActual365(schedule, rate, principals[i]);
+      Assert.assertEquals(expected, interest[i]);
+      Assert.assertEquals(expected, columnInterest.get(i));
+      Assert.assertEquals(expected, Proration.sum(schedule.accruals(principals[i], Rounding.HALF_UP)));
+    }
+    Assert.assertTrue(principals[3].plus(interest[3]).getAmount().movePointRight(2).compareTo(
+      BigDecimal.valueOf(Long.MAX_VALUE)) > 0);
+  }
+
+  public void testMoneyTimeRate() {
+    MoneyTimeRate fee = Money.dollars(5.00).per(Duration.days(1));
+    Assert.assertEquals(Money.dollars(455.00), AccrualSchedule.accrued(fee, FIRST_QUARTER_2004, Rounding.UNNECESSARY));
+  }
+
+}
@@ -0,0 +1,119 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+public class AllocationStrategyTest extends TestCase {
+
+  private static final long[] PROPORTIONS = { 17, 2, 1, 35, 35, 10 };
+
+  public void testRoundRobinIsTheDefault() {
+    Money total = Money.dollars(0.10);
+    Assert.assertTrue(Arrays.equals(
+      Proration.proratedOver(total, PROPORTIONS),
+      Proration.proratedOver(total, PROPORTIONS, AllocationStrategy.ROUND_ROBIN)));
+  }
+
+  public void testLargestRemainder() {
+    Money[] result = Proration.proratedOver(Money.dollars(0.10), PROPORTIONS, AllocationStrategy.LARGEST_REMAINDER);
+    assertCents(new long[] { 2, 0, 0, 4, 3, 1 }, result);
+  }
+
+  public void testLargestRemainderOfNegativeTotal() {
+    Money[] result = Proration.proratedOver(Money.dollars(-0.10), PROPORTIONS, AllocationStrategy.LARGEST_REMAINDER);
+    assertCents(new long[] { -2, 0, 0, -4, -3, -1 }, result);
+  }
+
+  public void testBankers() {
+    // 1.7, 0.2, 0.1, 3.5, 3.5 and 1.0 round to 2, 0, 0, 4, 4 and 1, one too many, which comes off the first 3.5
+    Money[] result = Proration.proratedOver(Money.dollars(0.10), PROPORTIONS, AllocationStrategy.BANKERS);
+    assertCents(new long[] { 2, 0, 0, 3, 4, 1 }, result);
+  }
+
+  public void testBankersRoundsHalvesToEven() {
+    // 2.5 and 1.5 both round to 2
+    Money[] result = Proration.proratedOver(Money.dollars(0.04), new long[] { 5, 3 }, AllocationStrategy.BANKERS);
+    assertCents(new long[] { 2, 2 }, result);
+  }
+
+  public void testRandomTiesAreReproducibleAndFair() {
+    Money total = Money.dollars(1.00);
+    AllocationStrategy strategy = AllocationStrategy.largestRemainder(7);
+    Assert.assertTrue(Arrays.equals(
+      Proration.dividedEvenlyIntoParts(total, 3, strategy),
+      Proration.dividedEvenlyIntoParts(total, 3, strategy)));
+    int[] extras = new int[3];
+    for (long seed = 0; seed < 300; seed++) {
+      Money[] parts = Proration.dividedEvenlyIntoParts(total, 3, AllocationStrategy.largestRemainder(seed));
+      Assert.assertEquals(total, Proration.sum(parts));
+      for (int i = 0; i < parts.length; i++) {
+        if (parts[i].equals(Money.dollars(0.34))) {
+          extras[i]++;
+        }
+      }
+    }
+    for (int i = 0; i < extras.length; i++) {
+      Assert.assertTrue("part " + i + " got " + extras[i], extras[i] > 60);
+    }
+  }
+
+  public void testLeftoverLargerThanParts() {
+    // weights of mixed signs leave more over than there are parts
+    long[] proportions = { 3, -1 };
+    Money[] result = Proration.proratedOver(Money.dollars(0.05), proportions, AllocationStrategy.LARGEST_REMAINDER);
+    Assert.assertEquals(Money.dollars(0.05), Proration.sum(result));
+  }
+
+  public void testBigDenominatorsAreScaled() {
+    BigDecimal[] proportions = { new BigDecimal("0.33333333333333333333333"), new BigDecimal("0.66666666666666666666667") };
+    Money[] result = Proration.proratedOver(Money.dollars(0.10), proportions, AllocationStrategy.LARGEST_REMAINDER);
+    assertCents(new long[] { 3, 7 }, result);
+  }
+
+  public void testPlanUsingStrategy() {
+    ProrationPlan plan = ProrationPlan.of(PROPORTIONS).using(AllocationStrategy.BANKERS);
+    Assert.assertSame(AllocationStrategy.BANKERS, plan.getStrategy());
+    Money total = Money.dollars(12.34);
+    Assert.assertTrue(Arrays.equals(
+      Proration.proratedOver(total, PROPORTIONS, AllocationStrategy.BANKERS),
+      plan.prorate(total)));
+  }
+
+  public void testStrategiesMustAllocateExactly() {
+    AllocationStrategy broken = new AllocationStrategy() {
+      public void allocate(long[] shares, long[] remainders, long denominator, long leftover) {
+      }
+    };
+    try {
+      Proration.proratedOver(Money.dollars(0.10), PROPORTIONS, broken);
+      Assert.fail("leftover was dropped");
+    } catch (IllegalStateException correctResponse) {
+    }
+  }
+
+  public void testKthLargest() {
+    Random random = new Random(1);
+    for (int trial = 0; trial < 200; trial++) {
+      long[] values = new long[1 + random.nextInt(50)];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = random.nextInt(10);
+      }
+      long[] sorted = values.clone();
+      Arrays.sort(sorted);
+      int k = random.nextInt(values.length);
+      Assert.assertEquals(sorted[values.length - 1 - k], Allocations.kthLargest(values, values.length, k));
+    }
+  }
+
+  private void assertCents(long[] expected, Money[] actual) {
+    Assert.assertEquals(expected.length, actual.length);
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(Money.dollars(BigDecimal.valueOf(expected[i], 2)), actual[i]);
+    }
+  }
+
+}
@@ -0,0 +1,95 @@
+package com.domainlanguage.money;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+public class ConstrainedProrationTest extends TestCase {
+
+  public void testUnconstrainedMatchesProration() {
+    long[] proportions = { 17, 2, 1, 35, 35, 10 };
+    Money[] expected = Proration.proratedOver(Money.dollars(0.10), proportions);
+    Money[] actual = ConstrainedProration.proratedOver(Money.dollars(0.10), proportions, null, null);
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(expected[i], actual[i]);
+    }
+  }
+
+  public void testCapsRedistributeToTheOthers() {
+    Money[] caps = { Money.dollars(10.00), null, null };
+    Money[] result = ConstrainedProration.proratedOver(Money.dollars(100.00), new long[] { 2, 1, 1 }, null, caps);
+    Assert.assertEquals(Money.dollars(10.00), result[0]);
+    Assert.assertEquals(Money.dollars(45.00), result[1]);
+    Assert.assertEquals(Money.dollars(45.00), result[2]);
+  }
+
+  public void testFloorsTakeFromTheOthers() {
+    Money[] floors = { null, null, Money.dollars(40.00) };
+    Money[] result = ConstrainedProration.proratedOver(Money.dollars(100.00), new long[] { 3, 1, 1 }, floors, null);
+    Assert.assertEquals(Money.dollars(45.00), result[0]);
+    Assert.assertEquals(Money.dollars(15.00), result[1]);
+    Assert.assertEquals(Money.dollars(40.00), result[2]);
+  }
+
+  public void testCapsAndFloorsTogether() {
+    Money[] floors = { Money.dollars(5.00), Money.dollars(5.00), Money.dollars(5.00), Money.dollars(5.00) };
+    Money[] caps = { Money.dollars(30.00), Money.dollars(30.00), Money.dollars(30.00), Money.dollars(30.00) };
+    Money[] result = ConstrainedProration.proratedOver(Money.dollars(80.00), new long[] { 100, 50, 1, 0 }, floors, caps);
+    Assert.assertEquals(Money.dollars(30.00), result[0]);
+    Assert.assertEquals(Money.dollars(30.00), result[1]);
+    Assert.assertEquals(Money.dollars(15.00), result[2]);
+    Assert.assertEquals(Money.dollars(5.00), result[3]);
+  }
+
+  public void testRandomBoundsAreRespected() {
+    Random random = new Random(17);
+    for (int round = 0; round < 200; round++) {
+      int n = 1 + random.nextInt(12);
+      long[] proportions = new long[n];
+      Money[] floors = new Money[n];
+      Money[] caps = new Money[n];
+      long low = 0;
+      long high = 0;
+      for (int i = 0; i < n; i++) {
+        proportions[i] = random.nextInt(10);
+        long floor = random.nextInt(500);
+        long cap = floor + random.nextInt(1000);
+        floors[i] = MinorUnits.toMoney(floor, Money.dollars(0).getCurrency());
+        caps[i] = MinorUnits.toMoney(cap, Money.dollars(0).getCurrency());
+        low += floor;
+        high += cap;
+      }
+      Money total = MinorUnits.toMoney(low + (long) (random.nextDouble() * (high - low)), floors[0].getCurrency());
+      Money[] result = ConstrainedProration.proratedOver(total, proportions, floors, caps);
+      Assert.assertEquals(total, Proration.sum(result));
+      for (int i = 0; i < n; i++) {
+        Assert.assertFalse(result[i].isLessThan(floors[i]));
+        Assert.assertFalse(result[i].isGreaterThan(caps[i]));
+      }
+    }
+  }
+
+  public void testInfeasibleBounds() {
+    Money[] floors = { Money.dollars(60.00), Money.dollars(60.00) };
+    try {
+      ConstrainedProration.proratedOver(Money.dollars(100.00), new long[] { 1, 1 }, floors, null);
+      Assert.fail("floors exceed total");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+    Money[] caps = { Money.dollars(40.00), Money.dollars(40.00) };
+    try {
+      ConstrainedProration.proratedOver(Money.dollars(100.00), new long[] { 1, 1 }, null, caps);
+      Assert.fail("caps short of total");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+    try {
+      ConstrainedProration.proratedOver(Money.dollars(100.00), new long[] { 1 },
+        new Money[] { Money.dollars(60.00) },
+        new Money[] { Money.dollars(40.00) });
+      Assert.fail("floor above cap");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+  }
+
+}
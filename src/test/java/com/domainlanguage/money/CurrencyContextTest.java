@@ -0,0 +1,39 @@
+package com.domainlanguage.money;
+
+import java.util.Currency;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+public class CurrencyContextTest extends TestCase {
+
+  private static final Currency USD = Currency.getInstance("USD");
+  private static final Currency JPY = Currency.getInstance("JPY");
+
+  public void testConstants() {
+    CurrencyContext dollars = CurrencyContext.of(CurrencyContextTest.USD);
+    Assert.assertEquals(2, dollars.getScale());
+    Assert.assertEquals(Money.dollars(0), dollars.getZero());
+    Assert.assertEquals(Money.dollars(0.01), dollars.getMinimumIncrement());
+    Assert.assertEquals("$", dollars.getSymbol());
+    CurrencyContext yen = CurrencyContext.of(CurrencyContextTest.JPY);
+    Assert.assertEquals(0, yen.getScale());
+    Assert.assertEquals(Money.valueOf(1, CurrencyContextTest.JPY), yen.getMinimumIncrement());
+  }
+
+  public void testContextsAreCached() {
+    Assert.assertSame(CurrencyContext.of(CurrencyContextTest.USD), CurrencyContext.of(CurrencyContextTest.USD));
+    Assert.assertSame(Money.notBelowZero(Money.dollars(-5)), Money.zeroIfNull(null));
+  }
+
+  public void testUnsupportedSymbol() {
+    CurrencyContext yuan = CurrencyContext.of(Currency.getInstance("CNY"));
+    Assert.assertFalse(yuan.hasSymbol());
+    try {
+      yuan.getSymbol();
+      Assert.fail("CurrencyUtils has no symbol for CNY");
+    } catch (IllegalStateException correctResponse) {
+    }
+  }
+
+}
@@ -0,0 +1,105 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.domainlanguage.time.CalendarDate;
+
+public class CurrencyConverterTest extends TestCase {
+
+  private static final Currency USD = Currency.getInstance("USD");
+  private static final Currency EUR = Currency.getInstance("EUR");
+  private static final Currency GBP = Currency.getInstance("GBP");
+  private static final Currency JPY = Currency.getInstance("JPY");
+
+  private static final CalendarDate jan1 = CalendarDate.date(2024, 1, 1);
+  private static final CalendarDate feb1 = CalendarDate.date(2024, 2, 1);
+
+  private static ExchangeRateTable table() {
+    return new ExchangeRateTable(CurrencyConverterTest.USD)
+      .put(jan1, EUR, new BigDecimal("0.80"))
+      .put(jan1, GBP, new BigDecimal("0.50"))
+      .put(jan1, JPY, new BigDecimal("150"))
+      .put(feb1, EUR, new BigDecimal("0.90"));
+  }
+
+  public void testDirectAndTriangulatedRates() {
+    ExchangeRateTable table = CurrencyConverterTest.table();
+    Assert.assertEquals(new BigDecimal("0.80"), table.rate(USD, EUR, jan1));
+    Assert.assertEquals(0, new BigDecimal("1.25").compareTo(table.rate(EUR, USD, jan1)));
+    Assert.assertEquals(0, new BigDecimal("0.625").compareTo(table.rate(EUR, GBP, jan1)));
+    Assert.assertEquals(BigDecimal.ONE, table.rate(EUR, EUR, jan1));
+  }
+
+  public void testVersionsCarryForward() {
+    ExchangeRateTable table = CurrencyConverterTest.table();
+    Assert.assertEquals(new BigDecimal("0.80"), table.rate(USD, EUR, CalendarDate.date(2024, 1, 31)));
+    Assert.assertEquals(new BigDecimal("0.90"), table.rate(USD, EUR, feb1));
+    // GBP was only quoted in January, but is still in effect in February
+    Assert.assertEquals(new BigDecimal("0.50"), table.rate(USD, GBP, CalendarDate.date(2024, 6, 1)));
+  }
+
+  public void testOutOfOrderPutsCarryForward() {
+    CalendarDate mar1 = CalendarDate.date(2024, 3, 1);
+    ExchangeRateTable table = new ExchangeRateTable(CurrencyConverterTest.USD)
+      .put(feb1, EUR, new BigDecimal("0.90"))
+      .put(mar1, GBP, new BigDecimal("0.60"))
+      .put(jan1, GBP, new BigDecimal("0.50"))
+      .put(jan1, EUR, new BigDecimal("0.80"));
+    Assert.assertEquals(new BigDecimal("0.50"), table.rate(USD, GBP, jan1));
+    Assert.assertEquals(new BigDecimal("0.50"), table.rate(USD, GBP, feb1));
+    Assert.assertEquals(new BigDecimal("0.90"), table.rate(USD, EUR, feb1));
+    Assert.assertEquals(new BigDecimal("0.60"), table.rate(USD, GBP, mar1));
+    // a correction to January, once February has been read, reaches February but not past March's own rate
+    table.put(jan1, GBP, new BigDecimal("0.55"));
+    Assert.assertEquals(new BigDecimal("0.55"), table.rate(USD, GBP, feb1));
+    Assert.assertEquals(new BigDecimal("0.60"), table.rate(USD, GBP, mar1));
+    Assert.assertEquals(new BigDecimal("0.90"), table.rate(USD, EUR, mar1));
+  }
+
+  public void testMissingRate() {
+    try {
+      CurrencyConverterTest.table().rate(USD, EUR, CalendarDate.date(2023, 12, 31));
+      Assert.fail("no rates before the first version");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+    try {
+      CurrencyConverterTest.table().rate(USD, Currency.getInstance("CHF"), jan1);
+      Assert.fail("CHF was never quoted");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+  }
+
+  public void testConvert() {
+    CurrencyConverter converter = new CurrencyConverter(CurrencyConverterTest.table());
+    Assert.assertEquals(Money.euros(8.00), converter.convert(Money.dollars(10.00), EUR, jan1));
+    Assert.assertEquals(Money.valueOf(1500, JPY), converter.convert(Money.dollars(10.00), JPY, jan1));
+    Assert.assertEquals(Money.dollars(0.07), converter.convert(Money.valueOf(10, JPY), USD, jan1));
+    Assert.assertEquals(Money.euros(1.00), converter.convert(Money.euros(1.00), EUR, jan1));
+  }
+
+  public void testBatchConvertLooksUpEachCurrencyOnce() {
+    final int[] lookups = { 0 };
+    final ExchangeRateTable table = CurrencyConverterTest.table();
+    CurrencyConverter converter = new CurrencyConverter(new ExchangeRateProvider() {
+      public BigDecimal rate(Currency from, Currency to, CalendarDate date) {
+        lookups[0]++;
+        return table.rate(from, to, date);
+      }
+    });
+    Money[] monies = { Money.dollars(10.00), Money.euros(4.00), Money.dollars(20.00), Money.euros(8.00) };
+    Money[] converted = converter.convert(monies, GBP, jan1);
+    Assert.assertEquals(Money.valueOf(5.00, GBP), converted[0]);
+    Assert.assertEquals(Money.valueOf(2.50, GBP), converted[1]);
+    Assert.assertEquals(Money.valueOf(10.00, GBP), converted[2]);
+    Assert.assertEquals(Money.valueOf(5.00, GBP), converted[3]);
+    Assert.assertEquals(2, lookups[0]);
+    // and the second time around the cache answers
+    converter.convert(monies, GBP, jan1);
+    Assert.assertEquals(2, lookups[0]);
+  }
+
+}
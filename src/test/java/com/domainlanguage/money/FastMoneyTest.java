@@ -0,0 +1,105 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rounding;
+import com.domainlanguage.tests.SerializationTester;
+
+public class FastMoneyTest extends TestCase {
+
+  private static final Currency USD = Currency.getInstance("USD");
+  private static final Currency JPY = Currency.getInstance("JPY");
+
+  private static final FastMoney d15 = FastMoney.of(1500, FastMoneyTest.USD);
+  private static final FastMoney d2_51 = FastMoney.of(251, FastMoneyTest.USD);
+
+  public void testSerialization() {
+    SerializationTester.assertCanBeSerialized(d15);
+  }
+
+  public void testRoundTripsThroughMoney() {
+    Assert.assertEquals(Money.dollars(15.00), d15.toMoney());
+    Assert.assertEquals(d2_51, FastMoney.from(Money.dollars(2.51)));
+    Assert.assertEquals(FastMoney.of(50, FastMoneyTest.JPY), FastMoney.from(Money.valueOf(50, FastMoneyTest.JPY)));
+    Assert.assertEquals(FastMoneyTest.JPY, FastMoney.of(50, FastMoneyTest.JPY).getCurrency());
+  }
+
+  public void testTooLargeForLong() {
+    try {
+      FastMoney.from(Money.dollars(new BigDecimal("100000000000000000000")));
+      Assert.fail("should not silently truncate");
+    } catch (ArithmeticException correctResponse) {
+    }
+  }
+
+  public void testArithmetic() {
+    Assert.assertEquals(FastMoney.of(1751, FastMoneyTest.USD), d15.plus(d2_51));
+    Assert.assertEquals(FastMoney.of(1249, FastMoneyTest.USD), d15.minus(d2_51));
+    Assert.assertEquals(FastMoney.of(-1500, FastMoneyTest.USD), d15.negated());
+    Assert.assertEquals(d15, d15.negated().abs());
+    Assert.assertEquals(FastMoney.of(15000, FastMoneyTest.USD), d15.times(10));
+  }
+
+  public void testOverflow() {
+    try {
+      FastMoney.of(Long.MAX_VALUE, FastMoneyTest.USD).plus(FastMoney.of(1, FastMoneyTest.USD));
+      Assert.fail("overflow should be detected");
+    } catch (ArithmeticException correctResponse) {
+    }
+    try {
+      FastMoney.of(Long.MAX_VALUE / 2, FastMoneyTest.USD).times(3);
+      Assert.fail("overflow should be detected");
+    } catch (ArithmeticException correctResponse) {
+    }
+  }
+
+  public void testDifferentCurrencies() {
+    try {
+      d15.plus(FastMoney.of(15, FastMoneyTest.JPY));
+      Assert.fail("added different currencies");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+    Assert.assertFalse(FastMoney.of(15, FastMoneyTest.USD).equals(FastMoney.of(15, FastMoneyTest.JPY)));
+  }
+
+  public void testCompare() {
+    Assert.assertTrue(d15.isGreaterThan(d2_51));
+    Assert.assertTrue(d2_51.isLessThan(d15));
+    Assert.assertEquals(0, d15.compareTo(FastMoney.of(1500, FastMoneyTest.USD)));
+    Assert.assertTrue(FastMoney.zero(FastMoneyTest.USD).isZero());
+    Assert.assertTrue(d15.negated().isNegative());
+  }
+
+  public void testApplyingMatchesMoney() {
+    Ratio[] ratios = { Ratio.of(1, 3), Ratio.of(2, 3), Ratio.of(new BigDecimal("0.175")), Ratio.of(-7, 9) };
+    int[] modes = { Rounding.UP, Rounding.DOWN, Rounding.CEILING, Rounding.FLOOR, Rounding.HALF_UP, Rounding.HALF_DOWN,
+      Rounding.HALF_EVEN };
+    long[] amounts = { 0, 1, 5, 10, 15, 251, -251, 10000, -99999 };
+    for (int r = 0; r < ratios.length; r++) {
+      for (int m = 0; m < modes.length; m++) {
+        for (int a = 0; a < amounts.length; a++) {
+          FastMoney fast = FastMoney.of(amounts[a], FastMoneyTest.USD);
+          Assert.assertEquals(fast.toMoney().applying(ratios[r], modes[m]), fast.applying(ratios[r], modes[m]).toMoney());
+        }
+      }
+    }
+  }
+
+  public void testApplyingRequiringRounding() {
+    try {
+      d15.applying(Ratio.of(1, 7), Rounding.UNNECESSARY);
+      Assert.fail("rounding was necessary");
+    } catch (ArithmeticException correctResponse) {
+    }
+  }
+
+  public void testPrint() {
+    Assert.assertEquals("$15.00", d15.toString());
+  }
+
+}
@@ -0,0 +1,69 @@
+package com.domainlanguage.money;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+public class IncrementalProrationTest extends TestCase {
+
+  public void testParts() {
+    IncrementalProration proration = new IncrementalProration(Money.dollars(100.00), new long[] { 1, 1, 1 });
+    Assert.assertEquals(Money.dollars(33.33), proration.get(0));
+    Assert.assertEquals(Money.dollars(33.33), proration.get(1));
+    Assert.assertEquals(Money.dollars(33.34), proration.get(2));
+  }
+
+  public void testWeightChange() {
+    IncrementalProration proration = new IncrementalProration(Money.dollars(100.00), new long[] { 1, 1, 1 });
+    proration.setWeight(1, 2);
+    Assert.assertEquals(2, proration.getWeight(1));
+    Assert.assertEquals(Money.dollars(25.00), proration.get(0));
+    Assert.assertEquals(Money.dollars(50.00), proration.get(1));
+    Assert.assertEquals(Money.dollars(25.00), proration.get(2));
+    proration.setTotal(Money.dollars(10.00));
+    Assert.assertEquals(Money.dollars(5.00), proration.get(1));
+  }
+
+  public void testMatchesStreamingAfterEveryUpdate() {
+    Random random = new Random(5);
+    long[] weights = new long[50];
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = random.nextInt(1000);
+    }
+    Money total = Money.dollars(12345.67);
+    IncrementalProration proration = new IncrementalProration(total, weights);
+    for (int update = 0; update < 100; update++) {
+      int index = random.nextInt(weights.length);
+      weights[index] = random.nextInt(1000);
+      proration.setWeight(index, weights[index]);
+      long sum = 0;
+      for (int i = 0; i < weights.length; i++) {
+        sum += weights[i];
+      }
+      StreamingProration streaming = new StreamingProration(total, sum);
+      Money[] parts = proration.toArray();
+      for (int i = 0; i < weights.length; i++) {
+        Money expected = streaming.next(weights[i]);
+        Assert.assertEquals(expected, proration.get(i));
+        Assert.assertEquals(expected, parts[i]);
+      }
+      Assert.assertEquals(total, Proration.sum(parts));
+    }
+  }
+
+  public void testRejectsBadWeights() {
+    IncrementalProration proration = new IncrementalProration(Money.dollars(1.00), new long[] { 0, 0 });
+    try {
+      proration.get(0);
+      Assert.fail("no weight");
+    } catch (ArithmeticException correctResponse) {
+    }
+    try {
+      proration.setWeight(0, -1);
+      Assert.fail("negative weight");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+  }
+
+}
@@ -0,0 +1,76 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+public class MoneyBagTest extends TestCase {
+
+  private static final Currency USD = Currency.getInstance("USD");
+  private static final Currency EUR = Currency.getInstance("EUR");
+  private static final Currency JPY = Currency.getInstance("JPY");
+
+  public void testAddMixedCurrencies() {
+    MoneyBag bag = new MoneyBag();
+    bag.addAll(Arrays.asList(Money.dollars(1.50), Money.euros(2.00), Money.dollars(3.25), Money.valueOf(100, MoneyBagTest.JPY)));
+    Assert.assertEquals(Money.dollars(4.75), bag.get(MoneyBagTest.USD));
+    Assert.assertEquals(Money.euros(2.00), bag.get(MoneyBagTest.EUR));
+    Assert.assertEquals(Money.valueOf(100, MoneyBagTest.JPY), bag.get(MoneyBagTest.JPY));
+    Assert.assertEquals(3, bag.toMap().size());
+  }
+
+  public void testAbsentCurrencyIsZero() {
+    MoneyBag bag = new MoneyBag();
+    Assert.assertTrue(bag.isEmpty());
+    Assert.assertEquals(Money.euros(0), bag.get(MoneyBagTest.EUR));
+    Assert.assertFalse(bag.contains(MoneyBagTest.EUR));
+    Assert.assertTrue(bag.toMap().isEmpty());
+  }
+
+  public void testZeroTotalIsStillPresent() {
+    MoneyBag bag = new MoneyBag();
+    bag.add(Money.dollars(1.00));
+    bag.add(Money.dollars(-1.00));
+    Assert.assertTrue(bag.contains(MoneyBagTest.USD));
+    Assert.assertEquals(Money.dollars(0), bag.toMap().get(MoneyBagTest.USD));
+  }
+
+  public void testMerge() {
+    MoneyBag a = new MoneyBag();
+    a.add(Money.dollars(1.00));
+    MoneyBag b = new MoneyBag();
+    b.add(Money.dollars(2.00));
+    b.add(Money.euros(5.00));
+    a.merge(b);
+    Assert.assertEquals(Money.dollars(3.00), a.get(MoneyBagTest.USD));
+    Assert.assertEquals(Money.euros(5.00), a.get(MoneyBagTest.EUR));
+  }
+
+  public void testOverflow() {
+    MoneyBag bag = new MoneyBag();
+    Money big = Money.dollars(new BigDecimal(Long.MAX_VALUE).movePointLeft(2));
+    bag.add(big);
+    bag.add(big);
+    Money huge = Money.dollars(new BigDecimal("1000000000000000000000.00"));
+    bag.add(huge);
+    Assert.assertEquals(big.plus(big).plus(huge), bag.get(MoneyBagTest.USD));
+  }
+
+  public void testParallelCollector() {
+    List<Money> ledger = new ArrayList<Money>();
+    for (int i = 0; i < 10000; i++) {
+      ledger.add(i % 2 == 0 ? Money.dollars(0.01) : Money.euros(0.02));
+    }
+    Map<Currency, Money> totals = ledger.parallelStream().collect(MoneyBag.summingByCurrency());
+    Assert.assertEquals(Money.dollars(50.00), totals.get(MoneyBagTest.USD));
+    Assert.assertEquals(Money.euros(100.00), totals.get(MoneyBagTest.EUR));
+    Assert.assertEquals(Money.dollars(50.00), ledger.parallelStream().collect(MoneyBag.collector()).get(MoneyBagTest.USD));
+  }
+
+}
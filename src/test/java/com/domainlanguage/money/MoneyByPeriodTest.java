@@ -0,0 +1,167 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.domainlanguage.time.CalendarDate;
+import com.domainlanguage.time.TimePoint;
+
+public class MoneyByPeriodTest extends TestCase {
+
+  private static final TimeZone NEW_YORK = TimeZone.getTimeZone("America/New_York");
+  private static final Currency USD = Currency.getInstance("USD");
+  private static final Currency EUR = Currency.getInstance("EUR");
+
+  private static class Transaction {
+    final TimePoint when;
+    final Money amount;
+
+    Transaction(TimePoint when, Money amount) {
+      this.when = when;
+      this.amount = amount;
+    }
+  }
+
+  private static List<Transaction> transactions(int count) {
+    Random random = new Random(25);
+    long start = TimePoint.atGMT(2023, 11, 15, 0, 0).getTime();
+    List<Transaction> transactions = new ArrayList<Transaction>();
+    for (int i = 0; i < count; i++) {
+      TimePoint when = TimePoint.from(start + (long) (random.nextDouble() * 200 * 24 * 60 * 60 * 1000));
+      Currency currency = random.nextBoolean() ? MoneyByPeriodTest.USD : MoneyByPeriodTest.EUR;
+      Money amount = Money.valueOf(BigDecimal.valueOf(random.nextInt(200001) - 50000, 2), currency);
+      transactions.add(new Transaction(when, amount));
+    }
+    return transactions;
+  }
+
+  /** Totals the slow way: a CalendarDate per row and a map lookup. */
+  private static Map<CalendarDate, Money> expected(List<Transaction> transactions, Currency currency, boolean monthly) {
+    Map<CalendarDate, Money> totals = new TreeMap<CalendarDate, Money>();
+    for (Transaction transaction : transactions) {
+      if (transaction.amount.getCurrency().equals(currency)) {
+        CalendarDate date = CalendarDate.from(transaction.when, MoneyByPeriodTest.NEW_YORK);
+        if (monthly) {
+          date = CalendarDate.from(date.getYear(), date.getMonth(), 1);
+        }
+        Money total = totals.get(date);
+        totals.put(date, total == null ? transaction.amount : total.plus(transaction.amount));
+      }
+    }
+    return totals;
+  }
+
+  private static void assertTotals(Map<CalendarDate, Money> expected, Map<CalendarDate, Money> actual) {
+    Assert.assertEquals(expected, actual);
+    Assert.assertEquals(new ArrayList<CalendarDate>(expected.keySet()), new ArrayList<CalendarDate>(actual.keySet()));
+  }
+
+  public void testByDayMatchesCalendarDates() {
+    List<Transaction> transactions = MoneyByPeriodTest.transactions(3000);
+    MoneyByPeriod totals = MoneyByPeriod.byDay(MoneyByPeriodTest.NEW_YORK);
+    for (Transaction transaction : transactions) {
+      totals.add(transaction.when, transaction.amount);
+    }
+    Assert.assertEquals(2, totals.currencies().size());
+    for (Currency currency : totals.currencies()) {
+      MoneyByPeriodTest.assertTotals(
+        MoneyByPeriodTest.expected(transactions, currency, false),
+        totals.toMap(currency));
+    }
+  }
+
+  public void testByMonthMatchesCalendarDates() {
+    List<Transaction> transactions = MoneyByPeriodTest.transactions(3000);
+    MoneyByPeriod totals = MoneyByPeriod.byMonth(MoneyByPeriodTest.NEW_YORK);
+    for (Transaction transaction : transactions) {
+      totals.add(transaction.when, transaction.amount);
+    }
+    for (Currency currency : totals.currencies()) {
+      Map<CalendarDate, Money> expected = MoneyByPeriodTest.expected(transactions, currency, true);
+      MoneyByPeriodTest.assertTotals(expected, totals.toMap(currency));
+      Assert.assertEquals(
+        expected.get(CalendarDate.date(2024, 2, 1)),
+        totals.get(currency, CalendarDate.date(2024, 2, 29)));
+    }
+  }
+
+  public void testDayInZone() {
+    MoneyByPeriod totals = MoneyByPeriod.byDay(MoneyByPeriodTest.NEW_YORK);
+    totals.add(TimePoint.atGMT(2024, 3, 1, 3, 0), Money.dollars(1.00));
+    totals.add(CalendarDate.date(2024, 2, 29), Money.dollars(2.00));
+    Assert.assertEquals(Money.dollars(3.00), totals.get(MoneyByPeriodTest.USD, CalendarDate.date(2024, 2, 29)));
+    Assert.assertEquals(Money.dollars(0.00), totals.get(MoneyByPeriodTest.USD, CalendarDate.date(2024, 3, 1)));
+    Assert.assertEquals(Money.euros(0.00), totals.get(MoneyByPeriodTest.EUR, CalendarDate.date(2024, 2, 29)));
+  }
+
+  public void testParallelCollectorMatchesSequential() {
+    List<Transaction> transactions = MoneyByPeriodTest.transactions(5000);
+    MoneyByPeriod sequential = MoneyByPeriod.byMonth(MoneyByPeriodTest.NEW_YORK);
+    for (Transaction transaction : transactions) {
+      sequential.add(transaction.when, transaction.amount);
+    }
+    MoneyByPeriod parallel = transactions.parallelStream().collect(
+      MoneyByPeriod.<Transaction> collector(
+        () -> MoneyByPeriod.byMonth(MoneyByPeriodTest.NEW_YORK),
+        t -> t.when,
+        t -> t.amount));
+    Assert.assertEquals(sequential.currencies(), parallel.currencies());
+    for (Currency currency : sequential.currencies()) {
+      Assert.assertEquals(sequential.toMap(currency), parallel.toMap(currency));
+    }
+  }
+
+  public void testMergeOfDifferentPeriodsFails() {
+    try {
+      MoneyByPeriod.byDay(MoneyByPeriodTest.NEW_YORK).merge(MoneyByPeriod.byMonth(MoneyByPeriodTest.NEW_YORK));
+      Assert.fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testColumnIsDense() {
+    MoneyByPeriod totals = MoneyByPeriod.byDay(MoneyByPeriodTest.NEW_YORK);
+    totals.add(CalendarDate.date(2024, 1, 3), Money.dollars(5.00));
+    totals.add(CalendarDate.date(2023, 12, 30), Money.dollars(1.50));
+    totals.add(CalendarDate.date(2024, 1, 3), Money.dollars(0.25));
+    Assert.assertEquals(CalendarDate.date(2023, 12, 30), totals.getFirstPeriod(MoneyByPeriodTest.USD));
+    MoneyColumn column = totals.toColumn(MoneyByPeriodTest.USD);
+    Assert.assertEquals(5, column.size());
+    Assert.assertEquals(Money.dollars(1.50), column.get(0));
+    Assert.assertEquals(Money.dollars(0.00), column.get(2));
+    Assert.assertEquals(Money.dollars(5.25), column.get(4));
+    Assert.assertNull(totals.getFirstPeriod(MoneyByPeriodTest.EUR));
+    Assert.assertTrue(totals.toColumn(MoneyByPeriodTest.EUR).isEmpty());
+  }
+
+  public void testOverflowSpills() {
+    Money huge = Money.dollars(new BigDecimal("90000000000000000.00"));
+    Money huger = Money.dollars(new BigDecimal("1000000000000000000000.00"));
+    MoneyByPeriod totals = MoneyByPeriod.byDay(MoneyByPeriodTest.NEW_YORK);
+    CalendarDate date = CalendarDate.date(2024, 5, 1);
+    totals.add(date, huge);
+    totals.add(date, huge);
+    totals.add(date, huger);
+    totals.add(date.nextDay(), Money.dollars(1.00));
+    Money expected = huge.plus(huge).plus(huger);
+    Assert.assertEquals(expected, totals.get(MoneyByPeriodTest.USD, date));
+    Assert.assertEquals(expected, totals.toColumn(MoneyByPeriodTest.USD).get(0));
+    Map<CalendarDate, Money> map = new HashMap<CalendarDate, Money>();
+    map.put(date, expected);
+    map.put(date.nextDay(), Money.dollars(1.00));
+    Assert.assertEquals(map, totals.toMap(MoneyByPeriodTest.USD));
+    MoneyByPeriod merged = MoneyByPeriod.byDay(MoneyByPeriodTest.NEW_YORK).merge(totals).merge(totals);
+    Assert.assertEquals(expected.plus(expected), merged.get(MoneyByPeriodTest.USD, date));
+  }
+
+}
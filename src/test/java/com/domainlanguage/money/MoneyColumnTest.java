@@ -0,0 +1,111 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Currency;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rounding;
+
+public class MoneyColumnTest extends TestCase {
+
+  private static final Currency USD = Currency.getInstance("USD");
+
+  private static MoneyColumn column(double... amounts) {
+    MoneyColumn column = new MoneyColumn(MoneyColumnTest.USD, 2);
+    for (double amount : amounts) {
+      column.add(Money.dollars(amount));
+    }
+    return column;
+  }
+
+  public void testAggregates() {
+    MoneyColumn column = MoneyColumnTest.column(1.50, -2.25, 10.00, 0.01);
+    Assert.assertEquals(4, column.size());
+    Assert.assertEquals(Money.dollars(9.26), column.sum());
+    Assert.assertEquals(Money.dollars(-2.25), column.min());
+    Assert.assertEquals(Money.dollars(10.00), column.max());
+    Assert.assertEquals(Money.dollars(2.32), column.mean(Rounding.HALF_EVEN));
+    Assert.assertEquals(Money.dollars(2.31), column.mean(Rounding.DOWN));
+    Assert.assertEquals(Money.dollars(0.01), column.get(3));
+  }
+
+  public void testFilteredSum() {
+    MoneyColumn column = MoneyColumnTest.column(1.00, 2.00, 3.00, 4.00);
+    Assert.assertEquals(Money.dollars(4.00), column.sum(i -> i % 2 == 0));
+    Assert.assertEquals(Money.dollars(0.00), column.sum(i -> false));
+  }
+
+  public void testSumByGroup() {
+    MoneyColumn column = MoneyColumnTest.column(1.00, 2.00, 3.00, 4.00);
+    Money[] sums = column.sumByGroup(new int[] { 0, 2, 0, 2 }, 3);
+    Assert.assertEquals(Money.dollars(4.00), sums[0]);
+    Assert.assertEquals(Money.dollars(0.00), sums[1]);
+    Assert.assertEquals(Money.dollars(6.00), sums[2]);
+  }
+
+  public void testSumSpillsPastLong() {
+    MoneyColumn column = new MoneyColumn(MoneyColumnTest.USD);
+    column.add(Long.MAX_VALUE);
+    column.add(Long.MAX_VALUE);
+    column.add(2);
+    BigDecimal expected = new BigDecimal(Long.MAX_VALUE).multiply(new BigDecimal(2)).add(new BigDecimal(2)).movePointLeft(2);
+    Assert.assertEquals(Money.dollars(expected), column.sum());
+    Assert.assertEquals(Money.dollars(expected), column.sumByGroup(new int[3], 1)[0]);
+  }
+
+  public void testOverflowLane() {
+    Money huge = Money.dollars(new BigDecimal("1000000000000000000000.00"));
+    MoneyColumn column = MoneyColumnTest.column(1.00, -5.00);
+    column.add(huge);
+    Assert.assertEquals(huge, column.get(2));
+    Assert.assertEquals(huge, column.max());
+    Assert.assertEquals(Money.dollars(-5.00), column.min());
+    Assert.assertEquals(huge.plus(Money.dollars(-4.00)), column.sum());
+  }
+
+  public void testCollector() {
+    MoneyColumn column = Arrays
+      .asList(Money.dollars(1.00), Money.dollars(2.00), Money.dollars(3.00))
+      .parallelStream()
+      .collect(MoneyColumn.collector(MoneyColumnTest.USD));
+    Assert.assertEquals(3, column.size());
+    Assert.assertEquals(Money.dollars(6.00), column.sum());
+  }
+
+  public void testDifferentCurrency() {
+    try {
+      MoneyColumnTest.column().add(Money.euros(1.00));
+      Assert.fail("added different currencies");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+  }
+
+  public void testEmpty() {
+    Assert.assertEquals(Money.dollars(0), MoneyColumnTest.column().sum());
+    try {
+      MoneyColumnTest.column().max();
+      Assert.fail("empty column has no max");
+    } catch (IllegalStateException correctResponse) {
+    }
+  }
+
+  public void testApplying() {
+    MoneyColumn column = MoneyColumnTest.column(1.00, 2.00, 3.33);
+    column.add(Money.dollars(new BigDecimal("123456789012345678901.23")));
+    Ratio third = Ratio.of(1, 3);
+    MoneyColumn applied = column.applying(third, Rounding.HALF_UP);
+    Assert.assertEquals(column.size(), applied.size());
+    for (int i = 0; i < column.size(); i++) {
+      Assert.assertEquals(column.get(i).applying(third, Rounding.HALF_UP), applied.get(i));
+    }
+    MoneyColumn taxed = column.times(new BigDecimal("1.075"), Rounding.HALF_EVEN);
+    for (int i = 0; i < column.size(); i++) {
+      Assert.assertEquals(column.get(i).times(new BigDecimal("1.075"), Rounding.HALF_EVEN), taxed.get(i));
+    }
+  }
+
+}
@@ -0,0 +1,81 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rational;
+import com.domainlanguage.base.Rounding;
+import com.domainlanguage.time.Duration;
+import com.domainlanguage.time.TimeRate;
+
+public class MoneyExpressionTest extends TestCase {
+
+  private static final Currency USD = Currency.getInstance("USD");
+
+  public void testRoundsOnlyOnce() {
+    // rounding after each step would give $0.33 * 3 = $0.99
+    MoneyExpression expression = MoneyExpression.of(Money.dollars(1.00)).dividedBy(3).times(3);
+    Assert.assertEquals(Money.dollars(1.00), expression.evaluate(Rounding.UNNECESSARY));
+  }
+
+  public void testFoldsFactorsExactly() {
+    MoneyExpression expression = MoneyExpression.of(Money.dollars(100.00))
+      .times(Ratio.of(1, 3))
+      .times(new BigDecimal("1.5"))
+      .plus(Money.dollars(0.01))
+      .minus(MoneyExpression.of(Money.dollars(50.00)));
+    Assert.assertEquals(Money.dollars(0.01), expression.evaluate(Rounding.UNNECESSARY));
+    Assert.assertEquals(Money.dollars(new BigDecimal("0.010")), expression.evaluate(3, Rounding.UNNECESSARY));
+  }
+
+  public void testInputsAcrossRows() {
+    // premium * 1.07 tax - $5 discount
+    MoneyExpression expression = MoneyExpression.input(0, USD)
+      .times(new BigDecimal("1.07"))
+      .minus(Money.dollars(5.00));
+    Assert.assertEquals(1, expression.inputCount());
+    Assert.assertEquals(Money.dollars(102.00), expression.evaluate(new Money[] { Money.dollars(100.00) }, Rounding.HALF_EVEN));
+    Assert.assertEquals(Money.dollars(5.70), expression.evaluate(new Money[] { Money.dollars(10.00) }, Rounding.HALF_EVEN));
+    Assert.assertEquals(Money.dollars(5.69), expression.evaluate(new Money[] { Money.dollars(9.99) }, Rounding.UP));
+    Assert.assertEquals(Money.dollars(5.68), expression.evaluate(new Money[] { Money.dollars(9.99) }, Rounding.DOWN));
+  }
+
+  public void testTwoInputs() {
+    MoneyExpression average = MoneyExpression.input(0, USD).plus(MoneyExpression.input(1, USD)).dividedBy(2);
+    Money[] row = { Money.dollars(1.00), Money.dollars(2.01) };
+    Assert.assertEquals(Money.dollars(1.50), average.evaluate(row, Rounding.DOWN));
+    Assert.assertEquals(Money.dollars(1.51), average.evaluate(row, Rounding.UP));
+  }
+
+  public void testTimeRates() {
+    MoneyTimeRate premium = Money.dollars(150.00).per(Duration.months(1));
+    Assert.assertEquals(Money.dollars(450.00), MoneyExpression.over(premium, Duration.months(3)).evaluate(Rounding.UNNECESSARY));
+    TimeRate interest = new TimeRate("0.06", Duration.days(360));
+    MoneyExpression accrued = MoneyExpression.of(Money.dollars(1000.00)).times(interest, Duration.days(90));
+    Assert.assertEquals(Money.dollars(15.00), accrued.evaluate(Rounding.UNNECESSARY));
+  }
+
+  public void testRowsBeyondLongs() {
+    MoneyExpression expression = MoneyExpression.input(0, USD).times(Rational.of(Long.MAX_VALUE, 3));
+    Money result = expression.evaluate(new Money[] { Money.dollars(3.00) }, Rounding.UNNECESSARY);
+    Assert.assertEquals(Money.dollars(new BigDecimal(Long.MAX_VALUE)), result);
+  }
+
+  public void testCurrencyMismatch() {
+    try {
+      MoneyExpression.of(Money.dollars(1.00)).plus(Money.euros(1.00));
+      Assert.fail("currencies differ");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+    try {
+      MoneyExpression.input(0, USD).evaluate(new Money[] { Money.euros(1.00) }, Rounding.DOWN);
+      Assert.fail("currencies differ");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+  }
+
+}
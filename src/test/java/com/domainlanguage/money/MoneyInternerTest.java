@@ -0,0 +1,63 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+public class MoneyInternerTest extends TestCase {
+
+  private static final Currency USD = Currency.getInstance("USD");
+
+  @Override
+  protected void tearDown() {
+    MoneyInterner.disable();
+  }
+
+  public void testDisabledByDefault() {
+    Assert.assertNull(MoneyInterner.installed());
+    Assert.assertNotSame(Money.dollars(1.00), Money.dollars(1.00));
+  }
+
+  public void testInternsValuesInRange() {
+    MoneyInterner interner = MoneyInterner.enable(-100, 10000);
+    Money first = Money.dollars(19.99);
+    Assert.assertSame(first, Money.dollars(new BigDecimal("19.99")));
+    Assert.assertSame(first, FastMoney.of(1999, MoneyInternerTest.USD).toMoney());
+    Assert.assertSame(Money.dollars(-1.00), Money.dollars(-1.00));
+    Assert.assertEquals(2, interner.getMisses());
+    Assert.assertEquals(3, interner.getHits());
+  }
+
+  public void testSkipsValuesOutOfRange() {
+    MoneyInterner interner = MoneyInterner.enable(0, 100);
+    Assert.assertEquals(Money.dollars(1.01), Money.dollars(1.00).plus(Money.dollars(0.01)));
+    Assert.assertNotSame(Money.dollars(-0.01), Money.dollars(-0.01));
+    Assert.assertNotSame(Money.dollars(new BigDecimal("1000000000000000000000")), Money.dollars(new BigDecimal("1000000000000000000000")));
+    Assert.assertTrue(interner.getOutOfRange() >= 5);
+    interner.resetStatistics();
+    Assert.assertEquals(0, interner.getOutOfRange());
+  }
+
+  public void testCurrenciesAreSeparate() {
+    MoneyInterner.enable(0, 100);
+    Money euro = Money.euros(0.50);
+    Assert.assertEquals(Money.dollars(0.50).getCurrency(), MoneyInternerTest.USD);
+    Assert.assertSame(euro, Money.euros(0.50));
+  }
+
+  public void testRangeIsBounded() {
+    try {
+      MoneyInterner.enable(0, MoneyInterner.MAX_SLOTS);
+      Assert.fail("too many slots");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+    try {
+      MoneyInterner.enable(Long.MIN_VALUE, Long.MAX_VALUE);
+      Assert.fail("too many slots");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+  }
+
+}
@@ -0,0 +1,118 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+public class MoneyParserTest extends TestCase {
+
+  private static final Currency USD = Currency.getInstance("USD");
+  private static final Currency EUR = Currency.getInstance("EUR");
+  private static final Currency JPY = Currency.getInstance("JPY");
+
+  private final MoneyParser dollars = new MoneyParser(MoneyParserTest.USD);
+
+  public void testParseMinorUnits() {
+    Assert.assertEquals(123456, dollars.parseMinorUnits("1,234.56"));
+    Assert.assertEquals(123456, dollars.parseMinorUnits("$1,234.56"));
+    Assert.assertEquals(-123456, dollars.parseMinorUnits("-$1,234.56"));
+    Assert.assertEquals(-123456, dollars.parseMinorUnits("$-1,234.56"));
+    Assert.assertEquals(150, dollars.parseMinorUnits(" 1.5 "));
+    Assert.assertEquals(100, dollars.parseMinorUnits("1"));
+    Assert.assertEquals(100, dollars.parseMinorUnits("1.000"));
+    Assert.assertEquals(5, dollars.parseMinorUnits(".05 USD"));
+    Assert.assertEquals(5000, new MoneyParser(JPY).parseMinorUnits("¥5,000"));
+  }
+
+  public void testParseRange() {
+    String line = "2024-01-01,$19.99,groceries";
+    Assert.assertEquals(1999, dollars.parseMinorUnits(line, 11, 17));
+  }
+
+  public void testRoundTripsFormatting() {
+    Money[] monies = { Money.dollars(0), Money.dollars(-0.5), Money.dollars(1999100.00), Money.dollars(-12345.67) };
+    for (Money money : monies) {
+      Assert.assertEquals(money, dollars.parse(money.toString()));
+    }
+  }
+
+  public void testParseWithSuffix() {
+    Assert.assertEquals(Money.euros(1234.50), dollars.parse("1,234.50 EUR"));
+    Assert.assertEquals(Money.euros(10.00), dollars.parse("€10 EUR"));
+    Assert.assertEquals(Money.valueOf(50, JPY), dollars.parse("50JPY"));
+    try {
+      dollars.parseMinorUnits("1.00 EUR");
+      Assert.fail("EUR is not USD");
+    } catch (NumberFormatException correctResponse) {
+    }
+  }
+
+  public void testEuropeanSeparators() {
+    MoneyParser euros = new MoneyParser(MoneyParserTest.EUR, '.', ',');
+    Assert.assertEquals(Money.euros(1234.56), euros.parse("€1.234,56"));
+  }
+
+  public void testParseBytes() {
+    ByteBuffer bytes = ByteBuffer.wrap("id,€-1,234.56,x".getBytes(StandardCharsets.UTF_8));
+    MoneyParser euros = new MoneyParser(MoneyParserTest.EUR);
+    // € is three bytes in UTF-8
+    Assert.assertEquals(-123456, euros.parseMinorUnits(bytes, 3, 15));
+    Assert.assertEquals(Money.euros(-1234.56), euros.parse(bytes, 3, 15));
+    Assert.assertEquals(0, bytes.position());
+  }
+
+  public void testTooLargeForLong() {
+    Assert.assertEquals(
+      Money.dollars(new BigDecimal("123456789012345678901.23")),
+      dollars.parse("$123,456,789,012,345,678,901.23"));
+    try {
+      dollars.parseMinorUnits("123456789012345678901.23");
+      Assert.fail("doesn't fit in a long");
+    } catch (NumberFormatException correctResponse) {
+    }
+    Assert.assertEquals(
+      Money.dollars(new BigDecimal("-99999999999999999999999.10")),
+      dollars.parse("-99999999999999999999999.100"));
+  }
+
+  public void testTooLargeForLongAndInvalid() {
+    String[] invalid = { "99999999999999999999999abc", "99999999999999999999999 1 2", "99999999999999999999999.123",
+      "99999999999999999999,999", "$99,999,999,999,999,999,999,99" };
+    for (String text : invalid) {
+      try {
+        dollars.parse(text);
+        Assert.fail("should not parse: " + text);
+      } catch (NumberFormatException correctResponse) {
+      }
+    }
+  }
+
+  public void testGroupsOfThree() {
+    Assert.assertEquals(Money.dollars(1234567.00), dollars.parse("1,234,567"));
+    Assert.assertEquals(Money.dollars(123456.00), dollars.parse("123,456.00"));
+    String[] invalid = { "1,5", "1,00", "1,0000", "1234,567", "1,234,56.00", "1,234,5678", "1,,234", "1,234," };
+    for (String text : invalid) {
+      try {
+        dollars.parseMinorUnits(text);
+        Assert.fail("should not parse: " + text);
+      } catch (NumberFormatException correctResponse) {
+      }
+    }
+  }
+
+  public void testInvalid() {
+    String[] invalid = { "", "$", "1.234", "1.2.3", "abc", "€1.00", "1,00x", "--1", ",100" };
+    for (String text : invalid) {
+      try {
+        dollars.parseMinorUnits(text);
+        Assert.fail("should not parse: " + text);
+      } catch (NumberFormatException correctResponse) {
+      }
+    }
+  }
+
+}
@@ -5,8 +5,14 @@
  */
 package com.domainlanguage.money;
 
+import java.io.StringWriter;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Currency;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 
 import junit.framework.Assert;
@@ -198,6 +204,25 @@ public class MoneyTest extends TestCase {
     Assert.assertEquals(d2_51_longNumber.toString(Locale.US), "$21,999,100.51");
   }
 
+  public void testFormatIsExact() {
+    Assert.assertEquals("$12,345,678,901,234,567.89", Money.dollars(new BigDecimal("12345678901234567.89")).toString());
+    Assert.assertEquals(
+      "$-123,456,789,012,345,678,901,234.56",
+      Money.dollars(new BigDecimal("-123456789012345678901234.56")).toString());
+    Assert.assertEquals("$-0.50", Money.dollars(-0.50).toString());
+    Assert.assertEquals("$0.05", Money.dollars(0.05).toString());
+    Assert.assertEquals("¥-1,000", Money.valueOf(-1000, MoneyTest.JPY).toString());
+  }
+
+  public void testFormatTo() throws Exception {
+    StringBuilder buffer = new StringBuilder("total: ");
+    Money.dollars(1999100.00).formatTo(buffer);
+    Assert.assertEquals("total: $1,999,100.00", buffer.toString());
+    StringWriter writer = new StringWriter();
+    e2_51.formatTo(writer);
+    Assert.assertEquals("€2.51", writer.toString());
+  }
+
   // TODO: Formatted printing of Money
   // public void testLocalPrinting() {
   // assertEquals("$15.00", d15.localString());
@@ -224,6 +249,49 @@ public class MoneyTest extends TestCase {
     Assert.assertEquals(Money.valueOf(51, MoneyTest.JPY), y50.incremented());
   }
 
+  public void testSum() {
+    Assert.assertEquals(Money.dollars(17.51), Money.sum(Arrays.asList(d15, d2_51)));
+    Assert.assertEquals(Money.dollars(17.51), Money.sum((Collection<Money>) new HashSet<Money>(Arrays.asList(d15, d2_51))));
+    Assert.assertEquals(Money.dollars(0), Money.sum(new ArrayList<Money>()));
+    try {
+      Money.sum(Arrays.asList(d15, e2_51));
+      Assert.fail("summed different currencies");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+  }
+
+  public void testSummingCollectors() {
+    List<Money> monies = new ArrayList<Money>();
+    for (int i = 0; i < 1000; i++) {
+      monies.add(Money.dollars(0.01));
+    }
+    Assert.assertEquals(Money.dollars(10.00), monies.parallelStream().collect(Money.summing(MoneyTest.USD)));
+    Assert.assertEquals(Money.dollars(10.00), monies.parallelStream().collect(Money.summingConcurrently(MoneyTest.USD)));
+    Assert.assertEquals(Money.euros(0), new ArrayList<Money>().stream().collect(Money.summing(MoneyTest.EUR)));
+  }
+
+  public void testSummingSpillsPastLong() {
+    Money big = Money.dollars(new BigDecimal(Long.MAX_VALUE).movePointLeft(2));
+    Money expected = Money.dollars(new BigDecimal(Long.MAX_VALUE).multiply(new BigDecimal(3)).movePointLeft(2));
+    Assert.assertEquals(expected, Arrays.asList(big, big, big).stream().collect(Money.summing(MoneyTest.USD)));
+    Assert.assertEquals(expected, Arrays.asList(big, big, big).parallelStream().collect(Money.summingConcurrently(MoneyTest.USD)));
+    Assert.assertEquals(expected, Money.parallelSum(new Money[] { big, big, big }));
+  }
+
+  public void testParallelSum() {
+    Money[] monies = new Money[100000];
+    for (int i = 0; i < monies.length; i++) {
+      monies[i] = Money.valueOf(new BigDecimal(i % 100).movePointLeft(2), MoneyTest.USD);
+    }
+    Assert.assertEquals(Money.dollars(49500.00), Money.parallelSum(monies));
+    monies[monies.length - 1] = e2_51;
+    try {
+      Money.parallelSum(monies);
+      Assert.fail("summed different currencies");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+  }
+
   public void testFractionalPennies() {
     // CurrencyPolicy(USD, 0.0025);
     // Smallest unit.unit Any Money based on this CurrencyPolicy must be some multiple of the
@@ -234,4 +302,29 @@ public class MoneyTest extends TestCase {
 
   }
 
+  public void testBulkApplyingMatchesEachElement() {
+    Money[] monies = {
+      Money.dollars(100.00),
+      Money.dollars(-0.05),
+      Money.euros(33.33),
+      Money.valueOf(new BigDecimal("12345"), Currency.getInstance("JPY")),
+      Money.dollars(new BigDecimal("92233720368547758.07")),
+      Money.dollars(new BigDecimal("123456789012345678901.23")) };
+    Ratio[] ratios = { Ratio.of(1, 3), Ratio.of(-2, 7), Ratio.of(new BigDecimal("1.0825"), new BigDecimal("0.5")) };
+    int[] modes = { Rounding.DOWN, Rounding.UP, Rounding.HALF_UP, Rounding.HALF_EVEN, Rounding.FLOOR, Rounding.CEILING };
+    for (int r = 0; r < ratios.length; r++) {
+      for (int m = 0; m < modes.length; m++) {
+        Money[] applied = Money.applying(monies, ratios[r], modes[m]);
+        for (int i = 0; i < monies.length; i++) {
+          Assert.assertEquals(monies[i].applying(ratios[r], modes[m]), applied[i]);
+        }
+      }
+    }
+    BigDecimal factor = new BigDecimal("0.0725");
+    Money[] taxes = Money.times(monies, factor, Rounding.HALF_EVEN);
+    for (int i = 0; i < monies.length; i++) {
+      Assert.assertEquals(monies[i].times(factor, Rounding.HALF_EVEN), taxes[i]);
+    }
+  }
+
 }
@@ -0,0 +1,38 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+public class NumberUtilsTest extends TestCase {
+
+  public void testFormatLong() {
+    Assert.assertEquals("0", NumberUtils.format(0));
+    Assert.assertEquals("999", NumberUtils.format(999));
+    Assert.assertEquals("1,000", NumberUtils.format(1000));
+    Assert.assertEquals("-1,234,567", NumberUtils.format(-1234567));
+    Assert.assertEquals("-9,223,372,036,854,775,808", NumberUtils.format(Long.MIN_VALUE));
+  }
+
+  public void testAppendUnscaled() {
+    StringBuilder buffer = new StringBuilder();
+    NumberUtils.appendTo(buffer, 100012, 2);
+    buffer.append(' ');
+    NumberUtils.appendTo(buffer, -5, 3);
+    buffer.append(' ');
+    NumberUtils.appendTo(buffer, 1, 20);
+    Assert.assertEquals("1,000.12 -0.005 0.00000000000000000001", buffer.toString());
+  }
+
+  public void testAppendBigDecimal() {
+    StringBuilder buffer = new StringBuilder();
+    NumberUtils.appendTo(buffer, new BigDecimal("1000.125"));
+    buffer.append(' ');
+    NumberUtils.appendTo(buffer, new BigDecimal("1E+4"));
+    buffer.append(' ');
+    NumberUtils.appendTo(buffer, new BigDecimal("-98765432109876543210.5"));
+    Assert.assertEquals("1,000.125 10,000 -98,765,432,109,876,543,210.5", buffer.toString());
+  }
+
+}
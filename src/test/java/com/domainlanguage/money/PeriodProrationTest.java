@@ -0,0 +1,92 @@
+package com.domainlanguage.money;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.domainlanguage.time.BusinessCalendar;
+import com.domainlanguage.time.CalendarDate;
+import com.domainlanguage.time.CalendarInterval;
+import com.domainlanguage.time.Duration;
+import com.domainlanguage.time.TimeInterval;
+import com.domainlanguage.time.TimePoint;
+
+public class PeriodProrationTest extends TestCase {
+
+  public void testByDaysOverMonths() {
+    CalendarInterval term = CalendarInterval.inclusive(2004, 1, 20, 2004, 3, 10);
+    Map<CalendarInterval, Money> result = PeriodProration.byDays(Money.dollars(51.00), term, Duration.months(1));
+    Iterator<Map.Entry<CalendarInterval, Money>> entries = result.entrySet().iterator();
+    assertEntry(CalendarInterval.inclusive(2004, 1, 20, 2004, 2, 19), Money.dollars(31.00), entries.next());
+    assertEntry(CalendarInterval.inclusive(2004, 2, 20, 2004, 3, 10), Money.dollars(20.00), entries.next());
+    Assert.assertFalse(entries.hasNext());
+  }
+
+  public void testFirstMonthOfPolicy() {
+    CalendarDate effective = CalendarDate.date(2004, 6, 7);
+    CalendarInterval entireMonth = effective.month();
+    CalendarInterval before = entireMonth.start().until(effective);
+    CalendarInterval remainder = effective.through(entireMonth.end());
+    Map<CalendarInterval, Money> result = PeriodProration.byDays(
+      Money.dollars(150.00),
+      Arrays.asList(before, remainder));
+    Assert.assertEquals(Money.dollars(30.00), result.get(before));
+    Assert.assertEquals(Money.dollars(120.00), result.get(remainder));
+  }
+
+  public void testByBusinessDays() {
+    CalendarInterval week = CalendarInterval.inclusive(2004, 11, 1, 2004, 11, 14);
+    Map<CalendarInterval, Money> result = PeriodProration.byBusinessDays(
+      Money.dollars(100.00),
+      week,
+      Duration.days(3),
+      new BusinessCalendar());
+    Money[] parts = result.values().toArray(new Money[0]);
+    Assert.assertEquals(5, parts.length);
+    // 3, 2, 2, 3 and 0 weekdays
+    Assert.assertEquals(Money.dollars(30.00), parts[0]);
+    Assert.assertEquals(Money.dollars(20.00), parts[1]);
+    Assert.assertEquals(Money.dollars(20.00), parts[2]);
+    Assert.assertEquals(Money.dollars(30.00), parts[3]);
+    Assert.assertEquals(Money.dollars(0.00), parts[4]);
+  }
+
+  public void testByMilliseconds() {
+    TimePoint start = TimePoint.atGMT(2004, 1, 1, 0, 0);
+    TimeInterval interval = TimeInterval.over(start, Duration.hours(10).addedTo(start));
+    Map<TimeInterval, Money> result = PeriodProration.byMilliseconds(Money.dollars(1.00), interval, Duration.hours(4));
+    Money[] parts = result.values().toArray(new Money[0]);
+    Assert.assertEquals(3, parts.length);
+    Assert.assertEquals(Money.dollars(0.40), parts[0]);
+    Assert.assertEquals(Money.dollars(0.40), parts[1]);
+    Assert.assertEquals(Money.dollars(0.20), parts[2]);
+    Assert.assertEquals(interval.end(), result.keySet().toArray(new TimeInterval[0])[2].end());
+  }
+
+  public void testRejectsUnboundedIntervals() {
+    try {
+      PeriodProration.byDays(Money.dollars(1.00), CalendarInterval.everFrom(CalendarDate.date(2004, 1, 1)), Duration.days(1));
+      Assert.fail("unbounded");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+  }
+
+  public void testRejectsRepeatedPeriods() {
+    CalendarInterval january = CalendarInterval.month(2004, 1);
+    CalendarInterval february = CalendarInterval.month(2004, 2);
+    try {
+      PeriodProration.byDays(Money.dollars(100.00), Arrays.asList(january, february, january));
+      Assert.fail("repeated");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+  }
+
+  private void assertEntry(CalendarInterval period, Money part, Map.Entry<CalendarInterval, Money> entry) {
+    Assert.assertEquals(period, entry.getKey());
+    Assert.assertEquals(part, entry.getValue());
+  }
+
+}
@@ -0,0 +1,77 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.domainlanguage.base.Ratio;
+
+public class ProrationPlanTest extends TestCase {
+
+  public void testMatchesProratedOver() {
+    Random random = new Random(42);
+    long[] proportions = new long[37];
+    for (int i = 0; i < proportions.length; i++) {
+      proportions[i] = random.nextInt(1000) * 6;
+    }
+    ProrationPlan plan = ProrationPlan.of(proportions);
+    for (int i = 0; i < 1000; i++) {
+      Money total = Money.dollars(BigDecimal.valueOf(random.nextLong() % 100000000000L, 2));
+      Assert.assertTrue(Arrays.equals(Proration.proratedOver(total, proportions), plan.prorate(total)));
+    }
+  }
+
+  public void testRatios() {
+    Ratio[] ratios = { Ratio.of(1, 2), Ratio.of(1, 3), Ratio.of(1, 6) };
+    ProrationPlan plan = ProrationPlan.of(ratios);
+    Money total = Money.dollars(1.01);
+    Assert.assertTrue(Arrays.equals(Proration.proratedOver(total, ratios), plan.prorate(total)));
+  }
+
+  public void testDecimalProportions() {
+    BigDecimal[] proportions = { new BigDecimal("0.25"), new BigDecimal("0.5"), new BigDecimal("0.25") };
+    Money[] results = new Money[3];
+    ProrationPlan.of(proportions).prorate(Money.dollars(0.03), results);
+    Assert.assertEquals(Money.dollars(0.01), results[0]);
+    Assert.assertEquals(Money.dollars(0.02), results[1]);
+    Assert.assertEquals(Money.dollars(0.00), results[2]);
+  }
+
+  public void testMinorUnits() {
+    ProrationPlan plan = ProrationPlan.of(new long[] { 3, 7 });
+    long[] results = plan.prorate(5, new long[2]);
+    Assert.assertEquals(2, results[0]);
+    Assert.assertEquals(3, results[1]);
+  }
+
+  public void testPlanIsUnaffectedByLaterChanges() {
+    long[] proportions = { 1, 1 };
+    ProrationPlan plan = ProrationPlan.of(proportions);
+    proportions[1] = 3;
+    Assert.assertEquals(Money.dollars(0.50), plan.prorate(Money.dollars(1.00))[1]);
+  }
+
+  public void testReducingKeepsHugeWeightsInLongs() {
+    // the sum overflows a long until the common factor is divided out
+    long[] proportions = { Long.MAX_VALUE - 6, Long.MAX_VALUE - 6 };
+    long[] results = ProrationPlan.of(proportions).prorate(101, new long[2]);
+    Assert.assertEquals(51, results[0]);
+    Assert.assertEquals(50, results[1]);
+  }
+
+  public void testParallelProrate() {
+    long[] proportions = new long[50000];
+    for (int i = 0; i < proportions.length; i++) {
+      proportions[i] = i % 13 + 1;
+    }
+    ProrationPlan plan = ProrationPlan.of(proportions).using(AllocationStrategy.BANKERS);
+    Money total = Money.euros(-1234567.89);
+    Money[] parallel = plan.parallelProrate(total, new Money[proportions.length]);
+    Assert.assertTrue(Arrays.equals(plan.prorate(total), parallel));
+    Assert.assertEquals(total, Money.parallelSum(parallel));
+  }
+
+}
@@ -6,11 +6,17 @@
 
 package com.domainlanguage.money;
 
+import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Currency;
+import java.util.Random;
 
 import junit.framework.Assert;
 import junit.framework.TestCase;
 
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rational;
+
 public class ProrationTest extends TestCase {
 
   private static Currency JPY = Currency.getInstance("JPY");
@@ -67,6 +73,19 @@ public class ProrationTest extends TestCase {
     }
   }
 
+  public void testDivideIntoZeroParts() {
+    try {
+      Proration.dividedEvenlyIntoParts(Money.dollars(1.00), 0);
+      Assert.fail();
+    } catch (ArithmeticException expected) {
+    }
+    try {
+      Proration.dividedEvenlyIntoParts(Money.dollars(1.00), 0, AllocationStrategy.LARGEST_REMAINDER);
+      Assert.fail();
+    } catch (ArithmeticException expected) {
+    }
+  }
+
   public void testProrateOnlyOneShortOfEven() {
     Money[] prorated = Proration.dividedEvenlyIntoParts(Money.dollars(1.09), 10);
     for (int i = 0; i < 9; i++) {
@@ -104,6 +123,12 @@ public class ProrationTest extends TestCase {
     Assert.assertEquals(Money.dollars(3.33), Proration.partOfWhole(total, portion, whole));
   }
 
+  public void testPartOfWholeIsExact() {
+    Assert.assertEquals(Money.dollars(128.57), Proration.partOfWhole(Money.dollars(150.00), 6, 7));
+    Assert.assertEquals(Money.dollars(333333.33), Proration.partOfWhole(Money.dollars(1000000.00), 1, 3));
+    Assert.assertEquals(Money.dollars(-333333.33), Proration.partOfWhole(Money.dollars(-1000000.00), 1, 3));
+  }
+
   public void testProratePercentPrecision() {
     Money total = Money.valueOf(57693, JPY);
     long[] percents = { 10, 15, 40, 10, 25 };
@@ -114,4 +139,137 @@ public class ProrationTest extends TestCase {
     Assert.assertEquals(Money.valueOf(5769, JPY), result[3]);
     Assert.assertEquals(Money.valueOf(14423, JPY), result[4]);
   }
+
+  public void testRemainderLargerThanNumberOfParts() {
+    // a multiplier truncated to a few decimal places used to leave far more cents over than there are parts
+    Ratio third = Ratio.of(1, 3);
+    Money[] result = Proration.proratedOver(Money.dollars(1000000.00), new Ratio[] { third, third, third });
+    Assert.assertEquals(Money.dollars(333333.34), result[0]);
+    Assert.assertEquals(Money.dollars(333333.33), result[1]);
+    Assert.assertEquals(Money.dollars(333333.33), result[2]);
+  }
+
+  public void testRatiosWithDifferentDenominators() {
+    Ratio[] ratios = { Ratio.of(1, 2), Ratio.of(1, 3), Ratio.of(1, 6) };
+    Money[] result = Proration.proratedOver(Money.dollars(1.01), ratios);
+    Assert.assertEquals(Money.dollars(0.51), result[0]);
+    Assert.assertEquals(Money.dollars(0.34), result[1]);
+    Assert.assertEquals(Money.dollars(0.16), result[2]);
+  }
+
+  public void testRationalsMatchRatios() {
+    Rational[] rationals = { Rational.of(1, 2), Rational.of(1, 3), Rational.of(1, 6) };
+    Ratio[] ratios = { Ratio.of(1, 2), Ratio.of(1, 3), Ratio.of(1, 6) };
+    Assert.assertTrue(Arrays.equals(
+      Proration.proratedOver(Money.dollars(1.01), ratios),
+      Proration.proratedOver(Money.dollars(1.01), rationals)));
+    // a common denominator beyond a long
+    rationals = new Rational[] { Rational.of(1, Long.MAX_VALUE), Rational.of(Long.MAX_VALUE - 2, Long.MAX_VALUE - 1) };
+    ratios = new Ratio[] { Ratio.of(1, Long.MAX_VALUE), Ratio.of(Long.MAX_VALUE - 2, Long.MAX_VALUE - 1) };
+    Assert.assertTrue(Arrays.equals(
+      Proration.proratedOver(Money.dollars(100.00), ratios),
+      Proration.proratedOver(Money.dollars(100.00), rationals)));
+  }
+
+  public void testRatiosNotSummingToOneAreScaledInProportion() {
+    Money[] expected = { Money.dollars(66.67), Money.dollars(33.33) };
+    Ratio[] ratios = { Ratio.of(1, 4), Ratio.of(1, 8) };
+    Assert.assertTrue(Arrays.equals(expected, Proration.proratedOver(Money.dollars(100.00), ratios)));
+    Rational[] rationals = { Rational.of(1, 4), Rational.of(1, 8) };
+    Assert.assertTrue(Arrays.equals(expected, Proration.proratedOver(Money.dollars(100.00), rationals)));
+    ratios = new Ratio[] { Ratio.of(3, 4), Ratio.of(3, 4) };
+    Assert.assertTrue(Arrays.equals(
+      new Money[] { Money.dollars(5.00), Money.dollars(5.00) },
+      Proration.proratedOver(Money.dollars(10.00), ratios)));
+  }
+
+  public void testProrateNegativeTotal() {
+    long[] proportions = { 1, 1, 1 };
+    Money[] result = Proration.proratedOver(Money.dollars(-1.00), proportions);
+    Assert.assertEquals(Money.dollars(-0.34), result[0]);
+    Assert.assertEquals(Money.dollars(-0.33), result[1]);
+    Assert.assertEquals(Money.dollars(-0.33), result[2]);
+    Assert.assertEquals(Money.dollars(-1.00), Proration.sum(result));
+  }
+
+  public void testProrateIntoSuppliedArray() {
+    Money[] results = new Money[3];
+    Assert.assertSame(results, Proration.proratedOver(Money.dollars(0.10), new long[] { 1, 2, 3 }, results));
+    Assert.assertEquals(Money.dollars(0.02), results[0]);
+    Assert.assertEquals(Money.dollars(0.03), results[1]);
+    Assert.assertEquals(Money.dollars(0.05), results[2]);
+    try {
+      Proration.proratedOver(Money.dollars(0.10), new long[] { 1, 2 }, results);
+      Assert.fail("wrong number of results");
+    } catch (IllegalArgumentException correctResponse) {
+    }
+  }
+
+  public void testProrateBeyondLongs() {
+    BigDecimal huge = new BigDecimal("100000000000000000000.01");
+    Money[] result = Proration.proratedOver(Money.dollars(huge), new long[] { 1, Long.MAX_VALUE });
+    Assert.assertEquals(Money.dollars(huge), Proration.sum(result));
+    Money[] even = Proration.dividedEvenlyIntoParts(Money.dollars(huge), 2);
+    Assert.assertEquals(Money.dollars(new BigDecimal("50000000000000000000.01")), even[0]);
+    Assert.assertEquals(Money.dollars(new BigDecimal("50000000000000000000.00")), even[1]);
+  }
+
+  public void testWeightsTimesTotalOverflowingLong() {
+    long[] proportions = { Long.MAX_VALUE / 2, Long.MAX_VALUE / 2 };
+    Money[] result = Proration.proratedOver(Money.dollars(1000000.01), proportions);
+    Assert.assertEquals(Money.dollars(500000.01), result[0]);
+    Assert.assertEquals(Money.dollars(500000.00), result[1]);
+  }
+
+  public void testDistributeRemainderLargerThanParts() {
+    Money[] startingValues = { Money.dollars(1.00), Money.dollars(2.00) };
+    Money[] result = Proration.distributeRemainderOver(startingValues, Money.dollars(0.05));
+    Assert.assertEquals(Money.dollars(1.03), result[0]);
+    Assert.assertEquals(Money.dollars(2.02), result[1]);
+  }
+
+  public void testParallelMatchesSequential() {
+    Random random = new Random(3);
+    long[] proportions = new long[100000];
+    for (int i = 0; i < proportions.length; i++) {
+      proportions[i] = random.nextInt(1000000);
+    }
+    Money total = Money.dollars(98765432.10);
+    Assert.assertTrue(Arrays.equals(
+      Proration.proratedOver(total, proportions),
+      Proration.parallelProratedOver(total, proportions)));
+    Assert.assertTrue(Arrays.equals(
+      Proration.proratedOver(total, proportions, AllocationStrategy.LARGEST_REMAINDER),
+      Proration.parallelProratedOver(total, proportions, AllocationStrategy.LARGEST_REMAINDER)));
+  }
+
+  /** @return the parts, or the class of what prorating them threw */
+  private static Object outcome(Money total, long[] proportions, AllocationStrategy strategy, boolean parallel) {
+    try {
+      return Arrays.asList(parallel
+        ? Proration.parallelProratedOver(total, proportions, strategy)
+        : Proration.proratedOver(total, proportions, strategy));
+    } catch (ArithmeticException e) {
+      return e.getClass();
+    }
+  }
+
+  public void testParallelOfMixedSignsThatOverflowMatchesSequential() {
+    long[] proportions = new long[10000];
+    proportions[0] = 5;
+    proportions[1] = -4;
+    proportions[2] = 1;
+    Money total = Money.dollars(new BigDecimal("36893488147419103.23"));
+    Money[] parts = Proration.parallelProratedOver(total, proportions);
+    Assert.assertEquals(Money.dollars(new BigDecimal("92233720368547758.08")), parts[0]);
+    Assert.assertTrue(Arrays.equals(Proration.proratedOver(total, proportions), parts));
+    // the other strategies need that part to fit in a long, so fail the same way either way
+    AllocationStrategy[] strategies = { AllocationStrategy.LARGEST_REMAINDER, AllocationStrategy.BANKERS };
+    for (AllocationStrategy strategy : strategies) {
+      Assert.assertEquals(
+        ProrationTest.outcome(total, proportions, strategy, false),
+        ProrationTest.outcome(total, proportions, strategy, true));
+    }
+  }
+
 }
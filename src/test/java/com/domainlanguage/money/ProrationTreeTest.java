@@ -0,0 +1,85 @@
+package com.domainlanguage.money;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+public class ProrationTreeTest extends TestCase {
+
+  private ProrationTree<String> tree;
+  private ProrationTree.Node<String> east;
+  private ProrationTree.Node<String> west;
+  private ProrationTree.Node<String> sales;
+  private ProrationTree.Node<String> support;
+  private ProrationTree.Node<String> ops;
+
+  @Override
+  protected void setUp() {
+    tree = new ProrationTree<String>("company");
+    east = tree.getRoot().addChild("east", 1);
+    west = tree.getRoot().addChild("west", 2);
+    sales = east.addChild("sales", 1);
+    support = east.addChild("support", 1);
+    ops = west.addChild("ops", 1);
+  }
+
+  public void testAllocatesEveryLevel() {
+    tree.allocate(Money.dollars(100.00));
+    Assert.assertEquals(Money.dollars(100.00), tree.getRoot().getAllocation());
+    Assert.assertEquals(Money.dollars(33.34), east.getAllocation());
+    Assert.assertEquals(Money.dollars(66.66), west.getAllocation());
+    Assert.assertEquals(Money.dollars(16.67), sales.getAllocation());
+    Assert.assertEquals(Money.dollars(16.67), support.getAllocation());
+    Assert.assertEquals(Money.dollars(66.66), ops.getAllocation());
+  }
+
+  public void testSubtreesSumToTheirParents() {
+    ProrationTree.Node<String> center = ops.addChild("a", 7);
+    ops.addChild("b", 11);
+    center.addChild("x", 3);
+    center.addChild("y", 5);
+    tree.allocate(Money.dollars(1234.57));
+    assertSubtreesSum(tree.getRoot());
+  }
+
+  public void testReallocatesOnlyChangedSubtrees() {
+    tree.allocate(Money.dollars(100.00));
+    Money westBefore = west.getAllocation();
+    Money opsBefore = ops.getAllocation();
+    support.setWeight(3);
+    tree.reallocate();
+    Assert.assertEquals(Money.dollars(8.34), sales.getAllocation());
+    Assert.assertEquals(Money.dollars(25.00), support.getAllocation());
+    Assert.assertSame(westBefore, west.getAllocation());
+    Assert.assertSame(opsBefore, ops.getAllocation());
+  }
+
+  public void testNewTotalAndNewChildren() {
+    tree.allocate(Money.dollars(100.00));
+    ProrationTree.Node<String> legal = west.addChild("legal", 1);
+    tree.allocate(Money.dollars(300.00));
+    Assert.assertEquals(Money.dollars(100.00), legal.getAllocation());
+    Assert.assertEquals(Money.dollars(100.00), ops.getAllocation());
+    assertSubtreesSum(tree.getRoot());
+  }
+
+  public void testMustAllocateBeforeReallocating() {
+    try {
+      tree.reallocate();
+      Assert.fail("no total yet");
+    } catch (IllegalStateException correctResponse) {
+    }
+  }
+
+  private void assertSubtreesSum(ProrationTree.Node<String> node) {
+    if (node.isLeaf()) {
+      return;
+    }
+    Money sum = Money.valueOf(0, node.getAllocation().getCurrency());
+    for (ProrationTree.Node<String> child : node.getChildren()) {
+      sum = sum.plus(child.getAllocation());
+      assertSubtreesSum(child);
+    }
+    Assert.assertEquals(node.getAllocation(), sum);
+  }
+
+}
@@ -0,0 +1,150 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Random;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.domainlanguage.base.Ratio;
+import com.domainlanguage.base.Rounding;
+import com.domainlanguage.time.Duration;
+
+public class RoundingPolicyTest extends TestCase {
+
+  private static final Currency CHF = Currency.getInstance("CHF");
+
+  private static Money francs(String amount) {
+    return Money.valueOf(new BigDecimal(amount), RoundingPolicyTest.CHF);
+  }
+
+  public void testOf() {
+    Assert.assertSame(RoundingPolicy.HALF_EVEN, RoundingPolicy.of(Rounding.HALF_EVEN));
+    Assert.assertSame(RoundingPolicy.DOWN, RoundingPolicy.of(RoundingMode.DOWN));
+    Assert.assertEquals(RoundingMode.HALF_UP, RoundingPolicy.HALF_UP.getMode());
+    Assert.assertEquals(new BigDecimal("0.01"), RoundingPolicy.HALF_UP.getIncrement(RoundingPolicyTest.CHF));
+  }
+
+  public void testCashRounding() {
+    RoundingPolicy cash = RoundingPolicy.cash(RoundingMode.HALF_UP);
+    Assert.assertEquals(new BigDecimal("0.05"), cash.getIncrement(RoundingPolicyTest.CHF));
+    Assert.assertEquals(RoundingPolicyTest.francs("1.00"), RoundingPolicyTest.francs("1.02").rounded(cash));
+    Assert.assertEquals(RoundingPolicyTest.francs("1.05"), RoundingPolicyTest.francs("1.03").rounded(cash));
+    Assert.assertEquals(RoundingPolicyTest.francs("-1.05"), RoundingPolicyTest.francs("-1.03").rounded(cash));
+    Assert.assertEquals(
+      RoundingPolicyTest.francs("1.05"),
+      Money.valueOf(new BigDecimal("1.025"), RoundingPolicyTest.CHF, cash));
+    // other currencies still round to their minor unit
+    Assert.assertEquals(Money.dollars(1.03), Money.dollars(1.03).rounded(cash));
+  }
+
+  public void testIncrementMustBeWholeMinorUnits() {
+    Currency usd = Currency.getInstance("USD");
+    try {
+      RoundingPolicy.HALF_UP.withIncrement(usd, new BigDecimal("0.001"));
+      Assert.fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      RoundingPolicy.HALF_UP.withIncrement(usd, BigDecimal.ZERO);
+      Assert.fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    Assert.assertEquals(RoundingPolicy.HALF_UP, RoundingPolicy.HALF_UP.withIncrement(usd, new BigDecimal("0.01")));
+  }
+
+  public void testMatchesIntRounding() {
+    Random random = new Random(24);
+    int[] rules = { Rounding.UP, Rounding.DOWN, Rounding.CEILING, Rounding.FLOOR, Rounding.HALF_UP, Rounding.HALF_DOWN,
+      Rounding.HALF_EVEN };
+    for (int i = 0; i < 500; i++) {
+      Money money = Money.dollars(BigDecimal.valueOf(random.nextInt(2000001) - 1000000, 2));
+      BigDecimal factor = BigDecimal.valueOf(random.nextInt(20001) - 10000, 1 + random.nextInt(4));
+      Ratio ratio = Ratio.of(1 + random.nextInt(99), 1 + random.nextInt(99));
+      for (int rule : rules) {
+        RoundingPolicy policy = RoundingPolicy.of(rule);
+        Assert.assertEquals(money.times(factor, rule), money.times(factor, policy));
+        Assert.assertEquals(money.applying(ratio, rule), money.applying(ratio, policy));
+      }
+    }
+  }
+
+  public void testLongAndBigDecimalRoundingAgree() {
+    Random random = new Random(5);
+    for (RoundingMode mode : RoundingMode.values()) {
+      if (mode == RoundingMode.UNNECESSARY) {
+        continue;
+      }
+      RoundingPolicy policy = RoundingPolicy.cash(mode).withIncrement(RoundingPolicyTest.CHF, new BigDecimal("0.25"));
+      for (int i = 0; i < 200; i++) {
+        long units = random.nextInt(200001) - 100000;
+        BigDecimal amount = BigDecimal.valueOf(units, 2);
+        Assert.assertEquals(
+          policy.round(amount, RoundingPolicyTest.CHF),
+          Money.valueOf(amount, RoundingPolicyTest.CHF).rounded(policy).getAmount());
+      }
+    }
+  }
+
+  public void testOverflowFallsBackToBigIntegers() {
+    Money huge = Money.dollars(new BigDecimal("92233720368547758.07"));
+    Assert.assertEquals(
+      Money.dollars(new BigDecimal("184467440737095516.14")),
+      huge.times(new BigDecimal(2), RoundingPolicy.HALF_EVEN));
+    Assert.assertEquals(
+      huge.dividedBy(new BigDecimal(3), Rounding.HALF_EVEN),
+      huge.dividedBy(new BigDecimal(3), RoundingPolicy.HALF_EVEN));
+  }
+
+  public void testRoundedNearLongMaxFallsBackToBigIntegers() {
+    RoundingPolicy cash = RoundingPolicy.cash(RoundingMode.UP);
+    Money near = RoundingPolicyTest.francs("92233720368547758.07");
+    Money expected = RoundingPolicyTest.francs("92233720368547758.10");
+    Assert.assertEquals(expected, near.rounded(cash));
+    Assert.assertEquals(expected, near.times(BigDecimal.ONE, cash));
+    Assert.assertEquals(expected, Money.valueOf(near.getAmount(), RoundingPolicyTest.CHF, cash));
+  }
+
+  public void testUnnecessaryRoundingThrows() {
+    try {
+      Money.dollars(1.01).times(new BigDecimal("0.5"), RoundingPolicy.of(RoundingMode.UNNECESSARY));
+      Assert.fail();
+    } catch (ArithmeticException expected) {
+    }
+  }
+
+  public void testMoneyTimeRateOver() {
+    MoneyTimeRate rate = new MoneyTimeRate(Money.dollars(10.00), Duration.days(3));
+    Assert.assertEquals(Money.dollars(3.33), rate.over(Duration.days(1), RoundingPolicy.HALF_UP));
+    Assert.assertEquals(Money.dollars(6.67), rate.over(Duration.days(2), RoundingPolicy.HALF_UP));
+    Assert.assertEquals(rate.over(Duration.days(7), Rounding.HALF_UP), rate.over(Duration.days(7), RoundingPolicy.HALF_UP));
+  }
+
+  public void testPartOfWhole() {
+    RoundingPolicy cash = RoundingPolicy.cash(RoundingMode.HALF_UP);
+    Assert.assertEquals(
+      RoundingPolicyTest.francs("33.35"),
+      Proration.partOfWhole(RoundingPolicyTest.francs("100.00"), Ratio.of(1, 3), cash));
+  }
+
+  public void testPartOfWholeRoundedDownMatchesDefault() {
+    Money million = Money.dollars(1000000.00);
+    Assert.assertEquals(Money.dollars(333333.33), Proration.partOfWhole(million, Ratio.of(1, 3), RoundingPolicy.DOWN));
+    Random random = new Random(11);
+    for (int i = 0; i < 500; i++) {
+      Money total = Money.dollars(BigDecimal.valueOf(random.nextLong() % 100000000000L, 2));
+      int numerator = random.nextInt(1000) - 500;
+      int denominator = 1 + random.nextInt(999);
+      Ratio ratio = Ratio.of(numerator, denominator);
+      BigDecimal exact = total.getAmount().multiply(BigDecimal.valueOf(numerator)).divide(
+        BigDecimal.valueOf(denominator),
+        2,
+        RoundingMode.DOWN);
+      Assert.assertEquals(Money.dollars(exact), Proration.partOfWhole(total, ratio));
+      Assert.assertEquals(Money.dollars(exact), Proration.partOfWhole(total, ratio, RoundingPolicy.DOWN));
+    }
+  }
+
+}
@@ -0,0 +1,80 @@
+package com.domainlanguage.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+public class StreamingProrationTest extends TestCase {
+
+  public void testPartsSumToTotal() {
+    final Money total = Money.dollars(1234567.89);
+    final UnitsAccumulator sum = new UnitsAccumulator();
+    final long[] count = new long[1];
+    StreamingProration.prorate(total, () -> LongStream.range(0, 100000).map(i -> i % 7 + 1), part -> {
+      sum.add(part.getAmount());
+      count[0]++;
+    });
+    Assert.assertEquals(100000, count[0]);
+    Assert.assertEquals(total, sum.toMoney(total.getCurrency()));
+  }
+
+  public void testPartsAreWithinOneMinorUnitOfExactShares() {
+    long[] weights = { 17, 2, 1, 35, 35, 10 };
+    StreamingProration proration = new StreamingProration(Money.dollars(0.10), 100);
+    for (long weight : weights) {
+      BigDecimal exact = BigDecimal.valueOf(10 * weight).divide(BigDecimal.valueOf(100), 0, RoundingMode.DOWN);
+      long cents = proration.next(weight).getAmount().movePointRight(2).longValueExact();
+      Assert.assertTrue(cents - exact.longValue() >= 0 && cents - exact.longValue() <= 1);
+    }
+    Assert.assertTrue(proration.isComplete());
+  }
+
+  public void testCumulativeRounding() {
+    List<Money> parts = new ArrayList<Money>();
+    StreamingProration.prorate(Money.dollars(1.00), () -> LongStream.of(1, 1, 1), parts::add);
+    Assert.assertEquals(Money.dollars(0.33), parts.get(0));
+    Assert.assertEquals(Money.dollars(0.33), parts.get(1));
+    Assert.assertEquals(Money.dollars(0.34), parts.get(2));
+  }
+
+  public void testNegativeTotal() {
+    StreamingProration proration = new StreamingProration(Money.dollars(-1.00), 3);
+    Assert.assertEquals(Money.dollars(-0.33), proration.next(1));
+    Assert.assertEquals(Money.dollars(-0.33), proration.next(1));
+    Assert.assertEquals(Money.dollars(-0.34), proration.next(1));
+  }
+
+  public void testDecimalWeights() {
+    StreamingProration proration = new StreamingProration(Money.dollars(0.10), new BigDecimal("1.5"));
+    Money first = proration.next(new BigDecimal("0.5"));
+    Money second = proration.next(1);
+    Assert.assertEquals(Money.dollars(0.03), first);
+    Assert.assertEquals(Money.dollars(0.07), second);
+    Assert.assertTrue(proration.isComplete());
+  }
+
+  public void testOverflowingProducts() {
+    long weight = Long.MAX_VALUE / 4;
+    StreamingProration proration = new StreamingProration(Money.dollars(1000000.01), weight * 2);
+    Money first = proration.next(weight);
+    Money second = proration.next(weight);
+    Assert.assertEquals(Money.dollars(500000.00), first);
+    Assert.assertEquals(Money.dollars(1000000.01), first.plus(second));
+  }
+
+  public void testWeightsMustNotChangeBetweenPasses() {
+    final long[] passes = new long[1];
+    try {
+      StreamingProration.prorate(Money.dollars(1.00), () -> LongStream.of(1, ++passes[0]), part -> {
+      });
+      Assert.fail("second pass had different weights");
+    } catch (IllegalStateException correctResponse) {
+    }
+  }
+
+}
@@ -6,6 +6,7 @@
 
 package com.domainlanguage.time;
 
+import java.util.Calendar;
 import java.util.Iterator;
 
 import junit.framework.Assert;
@@ -28,6 +29,59 @@ public class BusinessCalendarTest extends TestCase {
     Assert.assertEquals(21, businessCalendar().getElapsedBusinessDays(interval));
   }
 
+  public void testElapsedBusinessDaysMatchesCountingThem() {
+    BusinessCalendar calendar = businessCalendar();
+    CalendarDate start = CalendarDate.from(2003, 12, 20);
+    for (int length = 0; length < 400; length += 13) {
+      for (int offset = 0; offset < 7; offset++) {
+        CalendarInterval interval = CalendarInterval.inclusive(start.plusDays(offset), start.plusDays(offset + length));
+        int tally = 0;
+        Iterator<CalendarDate> days = calendar.businessDaysOnly(interval.daysIterator());
+        while (days.hasNext()) {
+          days.next();
+          tally++;
+        }
+        Assert.assertEquals(tally, calendar.getElapsedBusinessDays(interval));
+      }
+    }
+  }
+
+  public void testElapsedBusinessDaysOfSubclassUsesItsBusinessDays() {
+    BusinessCalendar fridaysOff = new BusinessCalendar() {
+      @Override
+      public boolean isHoliday(CalendarDate day) {
+        return super.isHoliday(day) || day.dayOfWeek() == Calendar.FRIDAY;
+      }
+    };
+    // Monday 2004-01-05 through Sunday 2004-01-11
+    CalendarInterval week = CalendarInterval.inclusive(CalendarDate.from(2004, 1, 5), CalendarDate.from(2004, 1, 11));
+    Assert.assertEquals(4, fridaysOff.getElapsedBusinessDays(week));
+    Assert.assertEquals(5, businessCalendar().getElapsedBusinessDays(week));
+  }
+
+  public void testElapsedBusinessDaysOfStandardSubclassIsArithmetic() {
+    final int[] daysChecked = { 0 };
+    BusinessCalendar standard = new BusinessCalendar() {
+      {
+        addHolidays(_HolidayDates.defaultHolidays());
+      }
+
+      @Override
+      protected boolean isStandardWeekdayCalendar() {
+        return true;
+      }
+
+      @Override
+      public boolean isBusinessDay(CalendarDate day) {
+        daysChecked[0]++;
+        return super.isBusinessDay(day);
+      }
+    };
+    CalendarInterval november = CalendarInterval.inclusive(2004, 11, 1, 2004, 11, 30);
+    Assert.assertEquals(businessCalendar().getElapsedBusinessDays(november), standard.getElapsedBusinessDays(november));
+    Assert.assertEquals(0, daysChecked[0]);
+  }
+
   public void testIsWeekend() {
     CalendarDate saturday = CalendarDate.from(2004, 1, 10);
     Assert.assertTrue(businessCalendar().isWeekend(saturday));
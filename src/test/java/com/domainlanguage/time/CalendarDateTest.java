@@ -7,6 +7,8 @@
 package com.domainlanguage.time;
 
 import java.util.Calendar;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.TimeZone;
 
 import junit.framework.Assert;
@@ -132,4 +134,29 @@ public class CalendarDateTest extends TestCase {
     Assert.assertEquals(expected, actual);
   }
 
+  public void testEpochDay() {
+    Assert.assertEquals(0, CalendarDate.date(1970, 1, 1).toEpochDay());
+    Assert.assertEquals(-1, CalendarDate.date(1969, 12, 31).toEpochDay());
+    Assert.assertEquals(11016, CalendarDate.date(2000, 2, 29).toEpochDay());
+    CalendarDate date = CalendarDate.date(1899, 12, 25);
+    for (int i = 0; i < 100000; i++) {
+      long epochDay = date.toEpochDay();
+      Assert.assertEquals(date, CalendarDate.fromEpochDay(epochDay));
+      CalendarDate next = date.nextDay();
+      Assert.assertEquals(epochDay + 1, next.toEpochDay());
+      date = next;
+    }
+  }
+
+  public void testHashCodesOfNearbyDatesDiffer() {
+    Set<Integer> hashCodes = new HashSet<Integer>();
+    CalendarDate date = CalendarDate.date(1999, 1, 1);
+    for (int i = 0; i < 3000; i++) {
+      Assert.assertTrue(date.toString(), hashCodes.add(date.hashCode()));
+      CalendarDate same = CalendarDate.date(date.getYear(), date.getMonth(), date.getDay());
+      Assert.assertEquals(date.hashCode(), same.hashCode());
+      date = date.nextDay();
+    }
+  }
+
 }
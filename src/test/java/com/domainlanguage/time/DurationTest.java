@@ -11,6 +11,7 @@ import java.math.BigDecimal;
 import junit.framework.Assert;
 import junit.framework.TestCase;
 
+import com.domainlanguage.base.Rational;
 import com.domainlanguage.base.Rounding;
 import com.domainlanguage.tests.SerializationTester;
 
@@ -132,6 +133,7 @@ public class DurationTest extends TestCase {
 
   public void testDivide() {
     Assert.assertEquals(new BigDecimal(1.5), Duration.days(3).dividedBy(Duration.days(2)).decimalValue(1, Rounding.DOWN));
+    Assert.assertEquals(Rational.of(3, 2), Duration.days(3).rationalDividedBy(Duration.days(2)));
   }
 
   public void testToNormalizedString() {